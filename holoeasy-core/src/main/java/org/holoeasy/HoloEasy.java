@@ -4,25 +4,58 @@ import com.github.retrooper.packetevents.PacketEvents;
 import com.github.retrooper.packetevents.event.PacketListener;
 import com.github.retrooper.packetevents.event.PacketListenerPriority;
 import com.github.retrooper.packetevents.event.PacketReceiveEvent;
+import com.github.retrooper.packetevents.event.PacketSendEvent;
 import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+import com.github.retrooper.packetevents.protocol.packettype.PacketTypeCommon;
 import com.github.retrooper.packetevents.wrapper.play.client.WrapperPlayClientInteractEntity;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerSetPassengers;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerSpawnEntity;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+import org.holoeasy.animation.AnimationEngine;
 import org.holoeasy.event.AsyncHologramInteractEvent;
+import org.holoeasy.event.InteractHandler;
+import org.holoeasy.event.InteractionLimiter;
+import org.holoeasy.hologram.AttachmentIndex;
+import org.holoeasy.hologram.EntityIndex;
+import org.holoeasy.hologram.HitTestIndex;
 import org.holoeasy.hologram.Hologram;
+import org.holoeasy.line.ClickableTextLine;
+import org.holoeasy.line.InteractionLine;
 import org.holoeasy.line.Line;
+import org.holoeasy.line.composite.CompositeElement;
+import org.holoeasy.metrics.HoloMetrics;
+import org.holoeasy.pool.EphemeralPool;
 import org.holoeasy.pool.HologramPool;
 import org.holoeasy.pool.IHologramPool;
+import org.holoeasy.util.TimingWheel;
 import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
 
 public class HoloEasy {
 
     private final Plugin plugin;
     private final List<IHologramPool<?>> pools = new ArrayList<>();
+    private final Queue<Line<?>> dirtyLines = new ConcurrentLinkedQueue<>();
+    private final TimingWheel refreshWheel = new TimingWheel();
+    private final AnimationEngine animationEngine = new AnimationEngine(this);
+    private final EntityIndex entityIndex = new EntityIndex();
+    private final HitTestIndex hitTestIndex = new HitTestIndex();
+    private final AttachmentIndex attachmentIndex = new AttachmentIndex();
+    private final InteractionLimiter interactionLimiter = new InteractionLimiter();
+    private final HoloMetrics metrics = new HoloMetrics();
+    private volatile Executor interactExecutor = Runnable::run;
+    private volatile boolean callInteractEvent = false;
+    private volatile BukkitTask tickTask;
 
     public HoloEasy(Plugin plugin) {
         this.plugin = plugin;
@@ -31,46 +64,172 @@ public class HoloEasy {
         PacketEvents.getAPI().getEventManager().registerListener(new PacketListener() {
             @Override
             public void onPacketReceive(PacketReceiveEvent event) {
-                if(event.getPacketType() != PacketType.Play.Client.INTERACT_ENTITY) {
-                    return;
+                PacketTypeCommon type = event.getPacketType();
+                if (type == PacketType.Play.Client.INTERACT_ENTITY) {
+                    handleInteractEntity(event);
+                } else if (type == PacketType.Play.Client.ANIMATION
+                        || type == PacketType.Play.Client.USE_ITEM
+                        || type == PacketType.Play.Client.PLAYER_BLOCK_PLACEMENT) {
+                    handleSwing(event);
                 }
-                Player player = event.getPlayer();
-                if (player == null) {
+            }
+
+            @Override
+            public void onPacketSend(PacketSendEvent event) {
+                PacketTypeCommon type = event.getPacketType();
+                if (type == PacketType.Play.Server.SET_PASSENGERS) {
+                    // counted by the handler, after it was rewritten
+                    handleSetPassengers(event);
                     return;
                 }
-
-                WrapperPlayClientInteractEntity packet = new WrapperPlayClientInteractEntity(event);
-
-//                Bukkit.broadcastMessage("Received interact packet for entity ID: " + packet.getEntityId());
-
-                // TODO: Optimize entity ID lookup
-                for (IHologramPool<?> pool : pools) {
-                    if(!pool.isInteractive()) {
-                        continue;
-                    }
-                    for (Hologram hologram : pool.getHolograms()) {
-                        for (Line<?> line : hologram.getLines()) {
-                            if(line.getType() != Line.Type.INTERACTION_LINE) {
-                                continue;
-                            }
-                            if(line.getEntityID() == packet.getEntityId()) {
-                                // found, call event
-                                Bukkit.getPluginManager().callEvent(new AsyncHologramInteractEvent(player, line));
-                                break;
-                            }
-                        }
-                    }
+                if (metrics.isEnabled()) {
+                    metrics.recordPacket(event);
+                }
+                if (type == PacketType.Play.Server.SPAWN_ENTITY) {
+                    handleSpawnEntity(event);
                 }
             }
         }, PacketListenerPriority.NORMAL);
     }
 
+    private void handleSetPassengers(PacketSendEvent event) {
+        Player player = event.getPlayer();
+        // most servers attach nothing, don't decode the packets of every mount and dismount
+        if (attachmentIndex.isEmpty() || player == null) {
+            if (metrics.isEnabled()) {
+                metrics.recordPacket(event);
+            }
+            return;
+        }
+        WrapperPlayServerSetPassengers packet = new WrapperPlayServerSetPassengers(event);
+        int vehicleId = packet.getEntityId();
+        int[] passengers = packet.getPassengers();
+        int[] merged = passengers;
+        if (attachmentIndex.isAttached(vehicleId)) {
+            // keep the attached holograms mounted when the real passengers of the entity change
+            attachmentIndex.updatePassengers(vehicleId, passengers);
+            merged = attachmentIndex.withRiders(player, vehicleId, passengers);
+            if (merged != passengers) {
+                packet.setPassengers(merged);
+                event.markForReEncode(true);
+            }
+        }
+        if (metrics.isEnabled()) {
+            metrics.recordPassengers(vehicleId, merged, merged != passengers);
+        }
+    }
+
+    private void handleSpawnEntity(PacketSendEvent event) {
+        if (attachmentIndex.isEmpty()) {
+            return;
+        }
+        Player player = event.getPlayer();
+        if (player == null) {
+            return;
+        }
+        WrapperPlayServerSpawnEntity packet = new WrapperPlayServerSpawnEntity(event);
+        int entityId = packet.getEntityId();
+        if (attachmentIndex.isAttached(entityId)) {
+            // the entity is tracked again by the player, mount the holograms once it exists on the client
+            event.getTasksAfterSend().add(() -> attachmentIndex.mount(player, entityId));
+        }
+    }
+
+    private void handleInteractEntity(PacketReceiveEvent event) {
+        Player player = event.getPlayer();
+        if (player == null) {
+            return;
+        }
+
+        WrapperPlayClientInteractEntity packet = new WrapperPlayClientInteractEntity(event);
+
+        boolean timed = metrics.isEnabled();
+        long start = timed ? System.nanoTime() : 0;
+        // Only holograms of interactive pools are indexed
+        Line<?> line = entityIndex.getLine(packet.getEntityId());
+        if (line == null) {
+            if (timed) {
+                metrics.recordInteractionLookup(System.nanoTime() - start);
+            }
+            return;
+        }
+
+        InteractHandler handler;
+        if (line instanceof InteractionLine) {
+            handler = ((InteractionLine) line).getInteractHandler();
+        } else if (line instanceof ClickableTextLine) {
+            handler = ((ClickableTextLine) line).getInteractHandler();
+        } else {
+            CompositeElement element = entityIndex.getElement(packet.getEntityId());
+            handler = element != null ? element.getInteractHandler() : null;
+        }
+        if (timed) {
+            metrics.recordInteractionLookup(System.nanoTime() - start);
+        }
+        dispatchInteract(player, line, packet.getEntityId(), handler);
+    }
+
+    private void handleSwing(PacketReceiveEvent event) {
+        Player player = event.getPlayer();
+        if (player == null) {
+            return;
+        }
+
+        // Name tags have no hitbox, find the clicked text line from the player's look ray
+        boolean timed = metrics.isEnabled();
+        long start = timed ? System.nanoTime() : 0;
+        HitTestIndex.Hit hit = hitTestIndex.rayTrace(player);
+        if (timed) {
+            metrics.recordInteractionLookup(System.nanoTime() - start);
+        }
+        if (hit == null) {
+            return;
+        }
+        // blocks can only be read on the main thread, the interact event must be called off it
+        Bukkit.getScheduler().runTask(plugin, () -> {
+            if (!player.isOnline() || hit.isOccluded()) {
+                return;
+            }
+            ClickableTextLine line = hit.getLine();
+            Bukkit.getScheduler().runTaskAsynchronously(plugin,
+                    () -> dispatchInteract(player, line, line.getEntityID(), line.getInteractHandler()));
+        });
+    }
+
+    private void dispatchInteract(Player player, Line<?> line, int entityId, @Nullable InteractHandler handler) {
+        boolean fireEvent = callInteractEvent && (line.getType() == Line.Type.INTERACTION_LINE
+                || line.getType() == Line.Type.CLICKABLE_TEXT_LINE);
+        if (handler == null && !fireEvent) {
+            return;
+        }
+        // also merges the swing and use packets sent for a single click
+        if (!interactionLimiter.tryAcquire(player, entityId)) {
+            return;
+        }
+
+        if (handler != null) {
+            interactExecutor.execute(() -> handler.onInteract(player));
+        }
+        if (fireEvent) {
+            Bukkit.getPluginManager().callEvent(new AsyncHologramInteractEvent(player, line));
+        }
+    }
+
     public <T extends Hologram> IHologramPool<T> startPool(double spawnDistance, boolean isInteractive, boolean checkLineOfSight) {
         HologramPool<T> simplepool = new HologramPool<>(this, spawnDistance, isInteractive, checkLineOfSight);
         pools.add(simplepool);
         return simplepool;
     }
 
+    /**
+     * Start a pool for short-lived text holograms, see {@link EphemeralPool}.
+     */
+    public @NotNull EphemeralPool startEphemeralPool(double spawnDistance) {
+        EphemeralPool pool = new EphemeralPool(this, spawnDistance);
+        pools.add(pool);
+        return pool;
+    }
+
     public void startPool(IHologramPool<?> pool) {
         pools.add(pool);
     }
@@ -81,9 +240,102 @@ public class HoloEasy {
             pool.destroy();
         }
         pools.clear();
+
+        if (tickTask != null) {
+            tickTask.cancel();
+            tickTask = null;
+        }
+        dirtyLines.clear();
+    }
+
+    @ApiStatus.Internal
+    public void markDirty(@NotNull Line<?> line) {
+        dirtyLines.add(line);
+        ensureTickTask();
+    }
+
+    /**
+     * Run the task every {@code intervalTicks} on the shared refresh wheel.
+     * All tasks due in the same tick run together on the lib's single async tick task.
+     */
+    @ApiStatus.Internal
+    public @NotNull TimingWheel.Handle scheduleRefresh(int intervalTicks, @NotNull Runnable task) {
+        TimingWheel.Handle handle = refreshWheel.schedule(intervalTicks, task);
+        ensureTickTask();
+        return handle;
+    }
+
+    private void ensureTickTask() {
+        if (tickTask == null) {
+            startTickTask();
+        }
+    }
+
+    private synchronized void startTickTask() {
+        // Started lazily, the lib is usually created in onLoad where tasks can't be scheduled yet
+        if (tickTask != null) {
+            return;
+        }
+        tickTask = Bukkit.getScheduler().runTaskTimerAsynchronously(plugin, () -> {
+            Line<?> line;
+            while ((line = dirtyLines.poll()) != null) {
+                line.flushDirty();
+            }
+            refreshWheel.tick();
+        }, 1L, 1L);
     }
 
     public Plugin getPlugin() {
         return plugin;
     }
+
+    public @NotNull AnimationEngine getAnimationEngine() {
+        return animationEngine;
+    }
+
+    /**
+     * Debounce and rate limit settings for hologram interactions, with counters of dropped clicks.
+     */
+    public @NotNull InteractionLimiter getInteractionLimiter() {
+        return interactionLimiter;
+    }
+
+    /**
+     * Set where click handlers run. By default they run directly on the Netty thread that received
+     * the packet, so handlers touching the world should hop to the main thread themselves
+     * (or pass an executor such as {@code r -> Bukkit.getScheduler().runTask(plugin, r)}).
+     */
+    public void setInteractExecutor(@NotNull Executor interactExecutor) {
+        this.interactExecutor = interactExecutor;
+    }
+
+    /**
+     * Also fire {@link AsyncHologramInteractEvent} for clicks on interaction and clickable text lines. Disabled by default,
+     * prefer {@link InteractionLine#onInteract(InteractHandler)}.
+     */
+    public void setCallInteractEvent(boolean callInteractEvent) {
+        this.callInteractEvent = callInteractEvent;
+    }
+
+    /**
+     * Performance metrics of the pools, packets and lines of this lib, disabled by default.
+     */
+    public @NotNull HoloMetrics getMetrics() {
+        return metrics;
+    }
+
+    @ApiStatus.Internal
+    public @NotNull EntityIndex getEntityIndex() {
+        return entityIndex;
+    }
+
+    @ApiStatus.Internal
+    public @NotNull HitTestIndex getHitTestIndex() {
+        return hitTestIndex;
+    }
+
+    @ApiStatus.Internal
+    public @NotNull AttachmentIndex getAttachmentIndex() {
+        return attachmentIndex;
+    }
 }
\ No newline at end of file
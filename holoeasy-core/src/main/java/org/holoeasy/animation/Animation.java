@@ -0,0 +1,38 @@
+package org.holoeasy.animation;
+
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
+import org.holoeasy.line.Line;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A frame-based line animation driven by the {@link AnimationEngine}.
+ */
+public interface Animation {
+
+    /**
+     * Ticks between two frames.
+     */
+    int getInterval();
+
+    /**
+     * Build the packet for the given frame. It is built once and sent to every viewer of the line.
+     * @param frame the frame number, starting at 0
+     * @return the packet to send, or null to skip this frame
+     */
+    @Nullable PacketWrapper<?> frame(@NotNull Line<?> line, int frame);
+
+    /**
+     * Whether this animation can run on the given line.
+     */
+    default boolean supports(@NotNull Line<?> line) {
+        return true;
+    }
+
+    /**
+     * Whether the animation is over once the given frame is reached. Finished animations are stopped.
+     */
+    default boolean isFinished(int frame) {
+        return false;
+    }
+}
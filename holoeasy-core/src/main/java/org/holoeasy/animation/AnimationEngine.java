@@ -0,0 +1,163 @@
+package org.holoeasy.animation;
+
+import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
+import org.bukkit.entity.Player;
+import org.holoeasy.HoloEasy;
+import org.holoeasy.hologram.PrivateConfig;
+import org.holoeasy.line.Line;
+import org.holoeasy.util.TimingWheel;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Set;
+
+/**
+ * Drives every line animation of a {@link HoloEasy} instance from its single tick task.
+ * <p>Animation state is kept on its line, the engine only references running animations through
+ * their scheduled frames, so a line dropped while paused takes its animation with it. Each frame's packet
+ * is built once and written to all viewers; animations of lines without viewers are paused and cost
+ * nothing until shown again.</p>
+ */
+public class AnimationEngine {
+
+    private final HoloEasy lib;
+
+    public AnimationEngine(@NotNull HoloEasy lib) {
+        this.lib = lib;
+    }
+
+    /**
+     * Start an animation on the line, replacing the current one.
+     */
+    public void play(@NotNull Line<?> line, @NotNull Animation animation) {
+        play(line, animation, null);
+    }
+
+    /**
+     * Start an animation on the line, replacing the current one.
+     * @param levelOfDetail lowers the frame rate for distant viewers, null to send every frame to everyone
+     */
+    public void play(@NotNull Line<?> line, @NotNull Animation animation, @Nullable LevelOfDetail levelOfDetail) {
+        if (!animation.supports(line)) {
+            throw new IllegalArgumentException(animation + " cannot animate " + line.getType());
+        }
+        ActiveAnimation active = new ActiveAnimation(line, animation, levelOfDetail);
+        ActiveAnimation previous = line.swapActiveAnimation(active);
+        if (previous != null) {
+            previous.pause();
+        }
+        if (!viewers(line).isEmpty()) {
+            active.resume();
+        }
+    }
+
+    public void stop(@NotNull Line<?> line) {
+        ActiveAnimation active = line.swapActiveAnimation(null);
+        if (active != null) {
+            active.pause();
+        }
+    }
+
+    public @Nullable Animation getAnimation(@NotNull Line<?> line) {
+        ActiveAnimation active = line.getActiveAnimation();
+        return active == null ? null : active.animation;
+    }
+
+    /**
+     * Resume the line's animation, if any, called when its hologram gains viewers.
+     */
+    public void resume(@NotNull Line<?> line) {
+        ActiveAnimation active = line.getActiveAnimation();
+        if (active != null) {
+            active.resume();
+        }
+    }
+
+    /**
+     * Pause the line's animation, if any, called when its hologram loses its last viewer.
+     */
+    public void pause(@NotNull Line<?> line) {
+        ActiveAnimation active = line.getActiveAnimation();
+        if (active != null) {
+            active.pause();
+        }
+    }
+
+    private static Set<Player> viewers(Line<?> line) {
+        return line.getHologram().getPvt().getSeeingPlayers();
+    }
+
+    /**
+     * An animation played on a line, held by the line.
+     */
+    public final class ActiveAnimation {
+        private final Line<?> line;
+        private final Animation animation;
+        private final LevelOfDetail levelOfDetail;
+        private int frame = 0;
+        private TimingWheel.Handle handle;
+
+        ActiveAnimation(Line<?> line, Animation animation, LevelOfDetail levelOfDetail) {
+            this.line = line;
+            this.animation = animation;
+            this.levelOfDetail = levelOfDetail;
+        }
+
+        synchronized void resume() {
+            if (handle == null) {
+                handle = lib.scheduleRefresh(animation.getInterval(), this::nextFrame);
+            }
+        }
+
+        synchronized void pause() {
+            if (handle != null) {
+                handle.cancel();
+                handle = null;
+            }
+        }
+
+        private void nextFrame() {
+            Set<Player> viewers = viewers(line);
+            if (viewers.isEmpty()) {
+                pause();
+                return;
+            }
+
+            if (animation.isFinished(frame)) {
+                line.clearActiveAnimation(this);
+                pause();
+                return;
+            }
+
+            int current = frame++;
+            if (levelOfDetail == null) {
+                PacketWrapper<?> packet = animation.frame(line, current);
+                if (packet == null) {
+                    return;
+                }
+                for (Player viewer : viewers) {
+                    PacketEvents.getAPI().getPlayerManager().sendPacket(viewer, packet);
+                }
+                return;
+            }
+
+            // Built lazily, only if at least one viewer is close enough for this frame
+            PacketWrapper<?> packet = null;
+            PrivateConfig pvt = line.getHologram().getPvt();
+            for (Player viewer : viewers) {
+                int divisor = levelOfDetail.divisorFor(pvt.getViewerDistanceSquared(viewer));
+                if (divisor == 0 || current % divisor != 0) {
+                    continue;
+                }
+                if (packet == null) {
+                    packet = animation.frame(line, current);
+                    if (packet == null) {
+                        return;
+                    }
+                }
+                PacketEvents.getAPI().getPlayerManager().sendPacket(viewer, packet);
+            }
+        }
+    }
+}
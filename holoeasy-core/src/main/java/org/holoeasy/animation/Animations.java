@@ -1,42 +1,37 @@
 package org.holoeasy.animation;
 
-import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
 import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerEntityRotation;
-import org.bukkit.entity.Player;
-import org.bukkit.scheduler.BukkitRunnable;
-import org.bukkit.scheduler.BukkitTask;
-import org.holoeasy.hologram.Hologram;
 import org.holoeasy.line.Line;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
-import java.util.function.Function;
+import java.util.function.BiFunction;
 
-public enum Animations {
+public enum Animations implements Animation {
 
-    CIRCLE(line -> {
-        Hologram holo = line.getHologram();
-
-        return new BukkitRunnable() {
-
-            float yaw = 0.0f;
-            @Override
-            public void run() {
-                for (Player seeingPlayer : holo.getPvt().getSeeingPlayers()) {
-                    WrapperPlayServerEntityRotation packet = new WrapperPlayServerEntityRotation(line.getEntityID(), (float) yaw, 0f, false);
-                    PacketEvents.getAPI().getPlayerManager().sendPacket(seeingPlayer, packet);
-                }
-            }
-        }.runTaskTimerAsynchronously(holo.getLib().getPlugin(), 2, 2);
+    CIRCLE(2, (line, frame) -> {
+        float yaw = (frame * 10f) % 360f;
+        return new WrapperPlayServerEntityRotation(line.getEntityID(), yaw, 0f, false);
     });
 
 
-    private final Function<Line<?>, BukkitTask> task;
+    private final int interval;
+    private final BiFunction<Line<?>, Integer, PacketWrapper<?>> frameFunction;
 
 
-    Animations(Function<Line<?>, BukkitTask> task) {
-        this.task = task;
+    Animations(int interval, BiFunction<Line<?>, Integer, PacketWrapper<?>> frameFunction) {
+        this.interval = interval;
+        this.frameFunction = frameFunction;
+    }
+
+    @Override
+    public int getInterval() {
+        return interval;
     }
 
-    public Function<Line<?>, BukkitTask> getTask() {
-        return task;
+    @Override
+    public @Nullable PacketWrapper<?> frame(@NotNull Line<?> line, int frame) {
+        return frameFunction.apply(line, frame);
     }
 }
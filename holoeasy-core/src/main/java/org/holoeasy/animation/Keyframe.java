@@ -0,0 +1,90 @@
+package org.holoeasy.animation;
+
+import com.github.retrooper.packetevents.util.Quaternion4f;
+import com.github.retrooper.packetevents.util.Vector3f;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A target transformation for a display line, reached by client-side interpolation.
+ * Unset properties keep their current value.
+ */
+public class Keyframe {
+
+    private final int duration;
+    private Vector3f translation;
+    private Vector3f scale;
+    private Quaternion4f rotationLeft;
+    private Quaternion4f rotationRight;
+
+    private Keyframe(int duration) {
+        if (duration <= 0) {
+            throw new IllegalArgumentException("Keyframe duration must be positive, got " + duration);
+        }
+        this.duration = duration;
+    }
+
+    /**
+     * @param duration ticks the client takes to interpolate from the previous keyframe to this one
+     */
+    public static @NotNull Keyframe of(int duration) {
+        return new Keyframe(duration);
+    }
+
+    public int getDuration() {
+        return duration;
+    }
+
+    public @Nullable Vector3f getTranslation() {
+        return translation;
+    }
+
+    public @Nullable Vector3f getScale() {
+        return scale;
+    }
+
+    public @Nullable Quaternion4f getRotationLeft() {
+        return rotationLeft;
+    }
+
+    public @Nullable Quaternion4f getRotationRight() {
+        return rotationRight;
+    }
+
+    // Builder
+
+    public Keyframe translation(float x, float y, float z) {
+        this.translation = new Vector3f(x, y, z);
+        return this;
+    }
+
+    public Keyframe scale(float scale) {
+        this.scale = new Vector3f(scale, scale, scale);
+        return this;
+    }
+
+    public Keyframe scale(float x, float y, float z) {
+        this.scale = new Vector3f(x, y, z);
+        return this;
+    }
+
+    public Keyframe rotationLeft(float x, float y, float z, float w) {
+        this.rotationLeft = new Quaternion4f(x, y, z, w);
+        return this;
+    }
+
+    public Keyframe rotationRight(float x, float y, float z, float w) {
+        this.rotationRight = new Quaternion4f(x, y, z, w);
+        return this;
+    }
+
+    /**
+     * Set the left rotation to a rotation around the Y axis.
+     * @param degrees the yaw angle
+     */
+    public Keyframe yaw(float degrees) {
+        double half = Math.toRadians(degrees) / 2;
+        this.rotationLeft = new Quaternion4f(0f, (float) Math.sin(half), 0f, (float) Math.cos(half));
+        return this;
+    }
+}
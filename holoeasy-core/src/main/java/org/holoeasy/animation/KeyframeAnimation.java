@@ -0,0 +1,123 @@
+package org.holoeasy.animation;
+
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
+import org.holoeasy.line.AbstractDisplayLine;
+import org.holoeasy.line.Line;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A timeline of {@link Keyframe}s for display lines.
+ * <p>One metadata packet is sent per keyframe, carrying the target transformation and the
+ * interpolation duration; the client interpolates in between. A spinning item therefore costs
+ * a few packets per turn instead of one every frame.</p>
+ * <pre>{@code
+ * line.setAnimation(new KeyframeAnimation()
+ *     .keyframe(Keyframe.of(10).translation(0, 0.2f, 0))
+ *     .keyframe(Keyframe.of(10).translation(0, 0, 0)));
+ * }</pre>
+ * Requires 1.21.10 or newer, {@link AnimationEngine#play} rejects it on older versions.
+ */
+@ApiStatus.Experimental
+public class KeyframeAnimation implements Animation {
+
+    private final List<Keyframe> keyframes = new ArrayList<>();
+    private boolean loop = true;
+
+    // Derived from the keyframes, recomputed on every change
+    private int interval = 1;
+    private int totalDuration = 0;
+    private int[] startTicks = new int[0];
+
+    /**
+     * Full turns around the Y axis, four 90 degree keyframes per turn.
+     */
+    public static @NotNull KeyframeAnimation spin(int ticksPerTurn) {
+        int quarter = Math.max(1, ticksPerTurn / 4);
+        return new KeyframeAnimation()
+                .keyframe(Keyframe.of(quarter).yaw(90))
+                .keyframe(Keyframe.of(quarter).yaw(180))
+                .keyframe(Keyframe.of(quarter).yaw(270))
+                .keyframe(Keyframe.of(quarter).yaw(360));
+    }
+
+    public KeyframeAnimation keyframe(@NotNull Keyframe keyframe) {
+        keyframes.add(keyframe);
+        recompute();
+        return this;
+    }
+
+    /**
+     * Restart from the first keyframe after the last one, enabled by default.
+     */
+    public KeyframeAnimation loop(boolean loop) {
+        this.loop = loop;
+        return this;
+    }
+
+    public @NotNull List<Keyframe> getKeyframes() {
+        return new ArrayList<>(keyframes);
+    }
+
+    @Override
+    public int getInterval() {
+        return interval;
+    }
+
+    @Override
+    public boolean supports(@NotNull Line<?> line) {
+        return line instanceof AbstractDisplayLine && AbstractDisplayLine.supportsKeyframes();
+    }
+
+    @Override
+    public boolean isFinished(int frame) {
+        return !loop && (long) frame * interval >= totalDuration;
+    }
+
+    @Override
+    public @Nullable PacketWrapper<?> frame(@NotNull Line<?> line, int frame) {
+        if (totalDuration == 0) {
+            return null;
+        }
+        long tick = (long) frame * interval;
+        if (loop) {
+            tick %= totalDuration;
+        }
+
+        for (int i = 0; i < startTicks.length; i++) {
+            if (startTicks[i] == tick) {
+                return ((AbstractDisplayLine<?, ?>) line).applyKeyframe(keyframes.get(i));
+            }
+        }
+        return null;
+    }
+
+    private void recompute() {
+        int gcd = 0;
+        int total = 0;
+        int[] starts = new int[keyframes.size()];
+        for (int i = 0; i < keyframes.size(); i++) {
+            int duration = keyframes.get(i).getDuration();
+            starts[i] = total;
+            total += duration;
+            gcd = gcd(gcd, duration);
+        }
+        // wake up only on ticks where a keyframe can start
+        this.interval = Math.max(1, gcd);
+        this.totalDuration = total;
+        this.startTicks = starts;
+    }
+
+    private static int gcd(int a, int b) {
+        while (b != 0) {
+            int t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+}
@@ -0,0 +1,83 @@
+package org.holoeasy.animation;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * Distance-based frame rate curve for animations.
+ * <p>Viewers past a threshold only receive every n-th frame, or none at all once frozen.
+ * Distances come from the pool tick, so no extra distance math is done per frame.</p>
+ * <pre>{@code
+ * line.setAnimation(Animations.CIRCLE, LevelOfDetail.create()
+ *     .above(16, 2)     // half frame rate past 16 blocks
+ *     .above(32, 4)     // quarter frame rate past 32 blocks
+ *     .freezeAbove(48)); // no frames past 48 blocks
+ * }</pre>
+ * <p>Keyframe animations send one packet per keyframe, so dropping some of them skips part of the
+ * motion; prefer {@link #freezeAbove(double)} for those.</p>
+ */
+public final class LevelOfDetail {
+
+    private double[] thresholdsSquared = new double[0];
+    private int[] divisors = new int[0];
+
+    private LevelOfDetail() {
+    }
+
+    public static @NotNull LevelOfDetail create() {
+        return new LevelOfDetail();
+    }
+
+    /**
+     * Send only every {@code frameDivisor}-th frame to viewers farther than the distance.
+     */
+    public LevelOfDetail above(double distance, int frameDivisor) {
+        if (frameDivisor < 1) {
+            throw new IllegalArgumentException("Frame divisor must be at least 1, got " + frameDivisor);
+        }
+        insert(distance, frameDivisor);
+        return this;
+    }
+
+    /**
+     * Send no frames to viewers farther than the distance.
+     */
+    public LevelOfDetail freezeAbove(double distance) {
+        insert(distance, 0);
+        return this;
+    }
+
+    /**
+     * @param distanceSquared squared distance between the viewer and the hologram
+     * @return send every n-th frame, 0 if frozen
+     */
+    public int divisorFor(double distanceSquared) {
+        int divisor = 1;
+        for (int i = 0; i < thresholdsSquared.length; i++) {
+            if (distanceSquared <= thresholdsSquared[i]) {
+                break;
+            }
+            divisor = divisors[i];
+        }
+        return divisor;
+    }
+
+    private void insert(double distance, int divisor) {
+        double squared = distance * distance;
+        int index = 0;
+        while (index < thresholdsSquared.length && thresholdsSquared[index] < squared) {
+            index++;
+        }
+
+        double[] newThresholds = Arrays.copyOf(thresholdsSquared, thresholdsSquared.length + 1);
+        int[] newDivisors = Arrays.copyOf(divisors, divisors.length + 1);
+        System.arraycopy(thresholdsSquared, index, newThresholds, index + 1, thresholdsSquared.length - index);
+        System.arraycopy(divisors, index, newDivisors, index + 1, divisors.length - index);
+        newThresholds[index] = squared;
+        newDivisors[index] = divisor;
+
+        this.thresholdsSquared = newThresholds;
+        this.divisors = newDivisors;
+    }
+}
@@ -0,0 +1,13 @@
+package org.holoeasy.event;
+
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Handler called directly when a player clicks a line or composite element,
+ * without going through the Bukkit event bus.
+ */
+@FunctionalInterface
+public interface InteractHandler {
+    void onInteract(@NotNull Player player);
+}
@@ -0,0 +1,150 @@
+package org.holoeasy.event;
+
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Filters hologram interactions before any event is built.
+ * <p>
+ * A single right click sends several interact packets (one per hand, plus INTERACT_AT); packets
+ * for the same line within the debounce window are collapsed into one interaction. Optionally a
+ * token bucket per player and line caps sustained click rates, e.g. from autoclickers, without one
+ * hologram using up the budget of another. Rate limiting is off by default, see {@link #rateLimit}.
+ */
+public class InteractionLimiter {
+
+    // lines kept per player before idle ones are swept
+    private static final int SWEEP_THRESHOLD = 32;
+
+    private final Map<UUID, PlayerState> states = new ConcurrentHashMap<>();
+
+    private volatile long debounceNanos = TimeUnit.MILLISECONDS.toNanos(100);
+    private volatile int burst = 0;
+    private volatile double tokensPerNano = 5.0 / TimeUnit.SECONDS.toNanos(1);
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder debounced = new LongAdder();
+    private final LongAdder rateLimited = new LongAdder();
+
+    /**
+     * Collapse interactions with the same line within this window, 0 disables debouncing.
+     */
+    public InteractionLimiter debounce(long duration, @NotNull TimeUnit unit) {
+        this.debounceNanos = unit.toNanos(duration);
+        return this;
+    }
+
+    /**
+     * Allow each player bursts of up to {@code burst} interactions per line, refilled at {@code perSecond}.
+     * A burst of 0, the default, disables rate limiting.
+     */
+    public InteractionLimiter rateLimit(int burst, double perSecond) {
+        if (burst < 0 || perSecond <= 0) {
+            throw new IllegalArgumentException("Invalid rate limit: burst=" + burst + ", perSecond=" + perSecond);
+        }
+        this.burst = burst;
+        this.tokensPerNano = perSecond / TimeUnit.SECONDS.toNanos(1);
+        return this;
+    }
+
+    /**
+     * @return true if the interaction should be dispatched
+     */
+    public boolean tryAcquire(@NotNull Player player, int entityId) {
+        PlayerState state = states.get(player.getUniqueId());
+        if (state == null) {
+            state = states.computeIfAbsent(player.getUniqueId(), id -> new PlayerState());
+        }
+
+        long now = System.nanoTime();
+        int burst = this.burst;
+        synchronized (state) {
+            LineState line = state.lines.get(entityId);
+            if (line == null) {
+                if (state.lines.size() >= SWEEP_THRESHOLD) {
+                    sweep(state, now, burst);
+                }
+                line = new LineState(burst, now);
+                state.lines.put(entityId, line);
+            } else if (debounceNanos > 0 && now - line.lastInteraction < debounceNanos) {
+                debounced.increment();
+                return false;
+            }
+
+            if (burst > 0) {
+                line.tokens = Math.min(burst, line.tokens + (now - line.lastRefill) * tokensPerNano);
+                line.lastRefill = now;
+                if (line.tokens < 1) {
+                    rateLimited.increment();
+                    return false;
+                }
+                line.tokens -= 1;
+            }
+
+            line.lastInteraction = now;
+        }
+        accepted.increment();
+        return true;
+    }
+
+    // Drop lines past their debounce window whose bucket would be full again, they behave like new ones
+    private void sweep(PlayerState state, long now, int burst) {
+        long idleNanos = debounceNanos;
+        if (burst > 0) {
+            idleNanos = Math.max(idleNanos, (long) (burst / tokensPerNano));
+        }
+        Iterator<LineState> iterator = state.lines.values().iterator();
+        while (iterator.hasNext()) {
+            if (now - iterator.next().lastInteraction >= idleNanos) {
+                iterator.remove();
+            }
+        }
+    }
+
+    public void forget(@NotNull Player player) {
+        states.remove(player.getUniqueId());
+    }
+
+    public long getAcceptedCount() {
+        return accepted.sum();
+    }
+
+    public long getDebouncedCount() {
+        return debounced.sum();
+    }
+
+    public long getRateLimitedCount() {
+        return rateLimited.sum();
+    }
+
+    /**
+     * Total interactions dropped by debouncing and rate limiting.
+     */
+    public long getDroppedCount() {
+        return debounced.sum() + rateLimited.sum();
+    }
+
+    private static final class PlayerState {
+        // by entity ID, guarded by the state
+        final Map<Integer, LineState> lines = new HashMap<>();
+    }
+
+    private static final class LineState {
+        double tokens;
+        long lastRefill;
+        long lastInteraction;
+
+        LineState(int burst, long now) {
+            this.tokens = burst;
+            this.lastRefill = now;
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package org.holoeasy.hologram;
+
+import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerSetPassengers;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+import org.holoeasy.util.EntityIdAllocator;
+import org.holoeasy.util.IntObjectMap;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+/**
+ * Maps the IDs of real entities to the holograms attached to them, see {@link Hologram#attachTo(Entity)}.
+ * <p>A set-passengers packet replaces the whole passenger list of the vehicle, so the riders of every hologram
+ * attached to an entity are always sent together with its real passengers. The packet listener uses this to
+ * complete the packets the server sends for the entity, and to mount the holograms again when the entity is
+ * spawned for a player.</p>
+ * <p>The listener runs on Netty threads, so the real passengers of each vehicle are kept as a snapshot of IDs:
+ * taken when attaching, then updated from the set-passengers packets the server sends for the vehicle.</p>
+ * <p>It also keeps every attached hologram, riding or not, so pools only sample and move those.</p>
+ */
+@ApiStatus.Internal
+public class AttachmentIndex {
+
+    private final IntObjectMap<Attachment> attachments = new IntObjectMap<>();
+    private volatile int count = 0;
+    // every attached hologram, including those teleported because their lines can't ride
+    private final Set<Hologram> attached = ConcurrentHashMap.newKeySet();
+    private final Set<Hologram> attachedView = Collections.unmodifiableSet(attached);
+
+    /**
+     * Whether no hologram is attached, checked before decoding any packet.
+     */
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    public boolean isAttached(int vehicleId) {
+        return attachments.get(vehicleId) != null;
+    }
+
+    /**
+     * Get the holograms attached to an entity, whose position the pools sample and follow.
+     */
+    public @NotNull Set<Hologram> getAttachedHolograms() {
+        return attachedView;
+    }
+
+    void follow(@NotNull Hologram hologram) {
+        attached.add(hologram);
+    }
+
+    void unfollow(@NotNull Hologram hologram) {
+        attached.remove(hologram);
+    }
+
+    synchronized void attach(@NotNull Entity vehicle, @NotNull Hologram hologram) {
+        Attachment attachment = attachments.get(vehicle.getEntityId());
+        if (attachment == null) {
+            attachment = new Attachment(passengerIds(vehicle));
+            attachments.put(vehicle.getEntityId(), attachment);
+            count++;
+        }
+        attachment.holograms.add(hologram);
+    }
+
+    synchronized void detach(@NotNull Entity vehicle, @NotNull Hologram hologram) {
+        Attachment attachment = attachments.get(vehicle.getEntityId());
+        if (attachment != null && attachment.holograms.remove(hologram) && attachment.holograms.isEmpty()) {
+            attachments.remove(vehicle.getEntityId(), attachment);
+            count--;
+        }
+    }
+
+    /**
+     * Append the riders of the holograms attached to the vehicle and shown to the player to the given passengers.
+     * Riders already in the list are not added twice, so packets sent by {@link #mount} pass through unchanged.
+     */
+    public int @NotNull [] withRiders(@NotNull Player player, int vehicleId, int @NotNull [] passengers) {
+        Attachment attachment = attachments.get(vehicleId);
+        if (attachment == null) {
+            return passengers;
+        }
+        return withRiders(player, attachment, passengers);
+    }
+
+    /**
+     * Remember the real passengers of the vehicle from a set-passengers packet, hologram riders are left out.
+     */
+    public void updatePassengers(int vehicleId, int @NotNull [] passengers) {
+        Attachment attachment = attachments.get(vehicleId);
+        if (attachment == null) {
+            return;
+        }
+        int[] real = new int[passengers.length];
+        int size = 0;
+        for (int passenger : passengers) {
+            if (!EntityIdAllocator.isClientSide(passenger)) {
+                real[size++] = passenger;
+            }
+        }
+        attachment.passengers = size == real.length ? real : Arrays.copyOf(real, size);
+    }
+
+    private static int[] withRiders(Player player, Attachment attachment, int[] passengers) {
+        int[] merged = passengers;
+        int size = passengers.length;
+        for (Hologram hologram : attachment.holograms) {
+            if (!hologram.isShownFor(player)) {
+                continue;
+            }
+            for (int rider : hologram.riderIds()) {
+                if (contains(merged, size, rider)) {
+                    continue;
+                }
+                if (size == merged.length) {
+                    merged = Arrays.copyOf(merged, Math.max(size * 2, 8));
+                }
+                merged[size++] = rider;
+            }
+        }
+        return merged == passengers ? passengers : Arrays.copyOf(merged, size);
+    }
+
+    /**
+     * Send the passengers of the vehicle to the player, its real ones followed by the hologram riders.
+     * Safe to call from any thread, no Bukkit API is used.
+     */
+    public void mount(@NotNull Player player, int vehicleId) {
+        Attachment attachment = attachments.get(vehicleId);
+        if (attachment == null) {
+            return;
+        }
+        int[] passengers = attachment.passengers;
+        int[] merged = withRiders(player, attachment, passengers);
+        if (merged != passengers) {
+            PacketEvents.getAPI().getPlayerManager().sendPacket(player, new WrapperPlayServerSetPassengers(vehicleId, merged));
+        }
+    }
+
+    private static int[] passengerIds(Entity vehicle) {
+        List<Entity> real = vehicle.getPassengers();
+        int[] ids = new int[real.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = real.get(i).getEntityId();
+        }
+        return ids;
+    }
+
+    private static boolean contains(int[] ids, int size, int id) {
+        for (int i = 0; i < size; i++) {
+            if (ids[i] == id) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class Attachment {
+        final Set<Hologram> holograms = new CopyOnWriteArraySet<>();
+        volatile int[] passengers; // real passengers only
+
+        Attachment(int[] passengers) {
+            this.passengers = passengers;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package org.holoeasy.hologram;
+
+import org.holoeasy.line.CompositeDisplayLine;
+import org.holoeasy.line.Line;
+import org.holoeasy.line.composite.CompositeElement;
+import org.holoeasy.util.IntObjectMap;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Maps client-side entity IDs to the lines (and composite elements) that own them,
+ * for holograms shown through interactive pools.
+ * <p>Used by the interact packet listener, which runs on the Netty thread for every
+ * click on any entity; a lookup is a single allocation-free probe.</p>
+ */
+@ApiStatus.Internal
+public class EntityIndex {
+
+    private final IntObjectMap<Line<?>> lines = new IntObjectMap<>();
+    private final IntObjectMap<CompositeElement> elements = new IntObjectMap<>();
+
+    public @Nullable Line<?> getLine(int entityId) {
+        return lines.get(entityId);
+    }
+
+    public @Nullable CompositeElement getElement(int entityId) {
+        return elements.get(entityId);
+    }
+
+    public void register(@NotNull Hologram hologram) {
+        for (Line<?> line : hologram.getLineArray()) {
+            register(line);
+        }
+    }
+
+    public void unregister(@NotNull Hologram hologram) {
+        for (Line<?> line : hologram.getLineArray()) {
+            unregister(line);
+        }
+    }
+
+    public void register(@NotNull Line<?> line) {
+        if (line instanceof CompositeDisplayLine) {
+            for (CompositeElement element : ((CompositeDisplayLine) line).getElements()) {
+                if (element.hasEntity()) {
+                    lines.put(element.getEntityId(), line);
+                    elements.put(element.getEntityId(), element);
+                }
+                if (element.getInteractionEntityID() != -1) {
+                    lines.put(element.getInteractionEntityID(), line);
+                    elements.put(element.getInteractionEntityID(), element);
+                }
+            }
+            return;
+        }
+        lines.put(line.getEntityID(), line);
+    }
+
+    public void unregister(@NotNull Line<?> line) {
+        if (line instanceof CompositeDisplayLine) {
+            for (CompositeElement element : ((CompositeDisplayLine) line).getElements()) {
+                if (element.hasEntity()) {
+                    lines.remove(element.getEntityId(), line);
+                    elements.remove(element.getEntityId(), element);
+                }
+                if (element.getInteractionEntityID() != -1) {
+                    lines.remove(element.getInteractionEntityID(), line);
+                    elements.remove(element.getInteractionEntityID(), element);
+                }
+            }
+            return;
+        }
+        lines.remove(line.getEntityID(), line);
+    }
+
+    public int size() {
+        return lines.size();
+    }
+}
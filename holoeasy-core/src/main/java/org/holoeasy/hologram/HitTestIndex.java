@@ -0,0 +1,172 @@
+package org.holoeasy.hologram;
+
+import org.bukkit.FluidCollisionMode;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.entity.Player;
+import org.bukkit.util.BlockIterator;
+import org.bukkit.util.RayTraceResult;
+import org.bukkit.util.Vector;
+import org.holoeasy.line.ClickableTextLine;
+import org.holoeasy.line.Line;
+import org.holoeasy.util.VersionEnum;
+import org.holoeasy.util.VersionUtil;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks the clickable text lines each player currently sees, for holograms shown through
+ * interactive pools.
+ * <p>Swing and use packets are frequent, so the look ray is only tested against the lines
+ * of that player's visible set; players who see none are rejected with a single map lookup.</p>
+ * <p>Swings are received on the Netty thread, where the Bukkit API can't be used, so the eye position
+ * is a snapshot taken by the pool tick, at most a tick old. The ray ignores blocks, callers check
+ * occlusion on the main thread with {@link Hit#isOccluded()}.</p>
+ */
+@ApiStatus.Internal
+public class HitTestIndex {
+
+    // A bit more than the creative reach, name tags sit above the armor stand hitbox
+    private static final double MAX_DISTANCE = 6.0;
+
+    private final Map<Player, Set<ClickableTextLine>> visible = new ConcurrentHashMap<>();
+    private final Map<Player, Location> eyes = new ConcurrentHashMap<>();
+
+    public void add(@NotNull Player player, @NotNull Hologram hologram) {
+        for (Line<?> line : hologram.getLineArray()) {
+            add(player, line);
+        }
+    }
+
+    public void add(@NotNull Player player, @NotNull Line<?> line) {
+        if (line instanceof ClickableTextLine) {
+            visible.computeIfAbsent(player, p -> ConcurrentHashMap.newKeySet()).add((ClickableTextLine) line);
+        }
+    }
+
+    public void remove(@NotNull Player player, @NotNull Hologram hologram) {
+        visible.computeIfPresent(player, (p, lines) -> {
+            for (Line<?> line : hologram.getLineArray()) {
+                if (line instanceof ClickableTextLine) {
+                    lines.remove(line);
+                }
+            }
+            return lines.isEmpty() ? null : lines;
+        });
+    }
+
+    public void remove(@NotNull Player player, @NotNull Line<?> line) {
+        if (!(line instanceof ClickableTextLine)) {
+            return;
+        }
+        visible.computeIfPresent(player, (p, lines) -> {
+            lines.remove(line);
+            return lines.isEmpty() ? null : lines;
+        });
+    }
+
+    public void forget(@NotNull Player player) {
+        visible.remove(player);
+        eyes.remove(player);
+    }
+
+    /**
+     * Record the eye position of the player, if they see clickable lines. Called by the pool tick.
+     */
+    public void snapshotEye(@NotNull Player player) {
+        if (visible.containsKey(player)) {
+            eyes.put(player, player.getEyeLocation());
+        } else {
+            eyes.remove(player);
+        }
+    }
+
+    /**
+     * Find the nearest clickable text line the player is looking at, ignoring blocks.
+     * Safe to call from any thread.
+     */
+    public @Nullable Hit rayTrace(@NotNull Player player) {
+        Set<ClickableTextLine> lines = visible.get(player);
+        if (lines == null) {
+            return null;
+        }
+        Location eye = eyes.get(player);
+        if (eye == null) {
+            // not seen by a tick yet
+            return null;
+        }
+        Vector direction = eye.getDirection();
+
+        ClickableTextLine nearest = null;
+        double nearestDistance = MAX_DISTANCE;
+        for (ClickableTextLine line : lines) {
+            double distance = line.hitDistance(player, eye, direction, nearestDistance);
+            if (distance >= 0) {
+                nearest = line;
+                nearestDistance = distance;
+            }
+        }
+        return nearest != null ? new Hit(nearest, eye, direction, nearestDistance) : null;
+    }
+
+    public static final class Hit {
+        private final ClickableTextLine line;
+        private final Location eye;
+        private final Vector direction;
+        private final double distance;
+
+        private Hit(ClickableTextLine line, Location eye, Vector direction, double distance) {
+            this.line = line;
+            this.eye = eye;
+            this.direction = direction;
+            this.distance = distance;
+        }
+
+        public @NotNull ClickableTextLine getLine() {
+            return line;
+        }
+
+        public double getDistance() {
+            return distance;
+        }
+
+        /**
+         * Whether a block stands between the eye and the line. Must be called on the main thread.
+         * <p>Before 1.13, which has no block ray trace, the blocks crossed by the ray are stepped through
+         * and any solid one occludes, without the collision shapes of partial blocks.</p>
+         */
+        public boolean isOccluded() {
+            World world = eye.getWorld();
+            if (world == null) {
+                return true;
+            }
+            if (!VersionUtil.isAbove(VersionEnum.V1_13)) {
+                return isOccludedLegacy(world);
+            }
+            RayTraceResult result = world.rayTraceBlocks(eye, direction, distance, FluidCollisionMode.NEVER, true);
+            return result != null && result.getHitBlock() != null;
+        }
+
+        private boolean isOccludedLegacy(World world) {
+            // rounded down so the block the name tag stands in, or just behind it, is not counted
+            int maxDistance = (int) distance;
+            if (maxDistance <= 0) {
+                return false;
+            }
+            BlockIterator blocks = new BlockIterator(world, eye.toVector(), direction, 0, maxDistance);
+            while (blocks.hasNext()) {
+                Block block = blocks.next();
+                if (block.getType().isSolid()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
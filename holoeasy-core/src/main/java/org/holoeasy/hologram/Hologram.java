@@ -6,37 +6,64 @@ import io.github.retrooper.packetevents.util.SpigotConversionUtil;
 import net.kyori.adventure.text.Component;
 import org.bukkit.Location;
 import org.bukkit.Material;
+import org.bukkit.entity.Entity;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 import org.holoeasy.HoloEasy;
 import org.holoeasy.line.*;
 import org.holoeasy.pool.IHologramPool;
 import org.holoeasy.pool.KeyAlreadyExistsException;
+import org.holoeasy.property.AsyncValue;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 public class Hologram {
     private final HoloEasy lib;
     private final PrivateConfig pvt;
-    private final UUID id = UUID.randomUUID();
+    private final UUID id;
     private Location location;
-    private final List<Line<?>> lines = new CopyOnWriteArrayList<>();
+    // edits publish a new snapshot under linesLock, readers iterate the array of the current one
+    private final Object linesLock = new Object();
+    private volatile LineSnapshot lines = LineSnapshot.EMPTY;
+    private volatile RiderCache riderCache;
+    private volatile int riderStamp = 0;
     private boolean loaded = false;
-
-    public Hologram(@NotNull HoloEasy lib, @NotNull Location location, ShowEvent showEvent, HideEvent hideEvent) {
+    private volatile boolean indexed = false;
+    private volatile @Nullable HologramRig rig;
+    private volatile @Nullable Entity attachedTo;
+    private volatile @Nullable Location attachmentTarget; // sampled on the main thread, followed by the pool tick
+    // held while showing to a player, so destroy can't release IDs in the middle of a spawn
+    private final Object lifecycleLock = new Object();
+    private volatile boolean destroyed = false;
+
+    public Hologram(@NotNull HoloEasy lib, @NotNull UUID id, @NotNull Location location, ShowEvent showEvent, HideEvent hideEvent) {
         this.lib = lib;
+        this.id = id;
         this.location = location;
         this.pvt = new PrivateConfig(this, showEvent, hideEvent);
     }
 
+    public Hologram(@NotNull HoloEasy lib, @NotNull Location location, ShowEvent showEvent, HideEvent hideEvent) {
+        this(lib, UUID.randomUUID(), location, showEvent, hideEvent);
+    }
+
     public Hologram(@NotNull HoloEasy lib, @NotNull Location location) {
         this(lib, location, null, null);
     }
 
+    /**
+     * Create a hologram with a known ID, e.g. one loaded from storage.
+     */
+    public Hologram(@NotNull HoloEasy lib, @NotNull UUID id, @NotNull Location location) {
+        this(lib, id, location, null, null);
+    }
+
     public @NotNull HoloEasy getLib() {
         return lib;
     }
@@ -54,14 +81,48 @@ public class Hologram {
         return location;
     }
 
+    /**
+     * Get an unmodifiable snapshot of the lines. Later edits don't affect it.
+     * <p><b>Breaking change:</b> this list used to be the live, mutable list of the hologram. Modifying it
+     * now throws {@link UnsupportedOperationException}; edit the lines with {@link #insertLine(int, Line)},
+     * {@link #removeLine(Line)} or {@link #replaceLines(List)} instead, which also update the viewers.</p>
+     */
     public @NotNull List<Line<?>> getLines() {
-        return lines;
+        return lines.list;
+    }
+
+    /**
+     * Get the lines of the current snapshot, for iteration without allocation. The array must not be modified.
+     */
+    @ApiStatus.Internal
+    public Line<?> @NotNull [] getLineArray() {
+        return lines.array;
+    }
+
+    /**
+     * Get a counter incremented every time the lines are inserted, removed or replaced.
+     */
+    public int getLinesVersion() {
+        return lines.version;
+    }
+
+    private <L extends Line<?>> @NotNull L addLine(@NotNull L line) {
+        return insert(line, true, 0);
+    }
+
+    /**
+     * Refresh the entity IDs of a line in the interaction index, e.g. after composite elements were added.
+     */
+    @ApiStatus.Internal
+    public void reindex(@NotNull Line<?> line) {
+        if (indexed) {
+            lib.getEntityIndex().register(line);
+        }
     }
 
     public @NotNull BlockLine blockLine(@NotNull Function<@NotNull Player, @NotNull ItemStack> blockSupplier) {
         BlockLine line = new BlockLine(this, blockSupplier);
-        lines.add(line);
-        return line;
+        return addLine(line);
     }
 
     public Hologram blockLine(@NotNull Material material) {
@@ -71,8 +132,7 @@ public class Hologram {
 
     public @NotNull ItemLine itemLine(@NotNull Function<@NotNull Player, @NotNull ItemStack> itemSupplier) {
         ItemLine line = new ItemLine(this, itemSupplier);
-        lines.add(line);
-        return line;
+        return addLine(line);
     }
 
     public Hologram itemLine(@NotNull Material material) {
@@ -82,8 +142,7 @@ public class Hologram {
 
     public @NotNull TextLine textLine(@NotNull Function<@NotNull Player, @NotNull String> textSupplier) {
         TextLine line = new TextLine(this, textSupplier);
-        lines.add(line);
-        return line;
+        return addLine(line);
     }
 
     public Hologram textLine(@NotNull String text) {
@@ -91,10 +150,29 @@ public class Hologram {
         return this;
     }
 
+    /**
+     * Create a text line whose value is loaded asynchronously, e.g. from a database.
+     * The placeholder is shown until the first load completes, then the last known value is
+     * shown while it is refreshed in the background every {@code ttl}.
+     */
+    public @NotNull TextLine asyncTextLine(@NotNull Function<@NotNull Player, @NotNull CompletableFuture<String>> textLoader,
+                                           @NotNull String placeholder, long ttl, @NotNull TimeUnit unit) {
+        AsyncValue<String> value = AsyncValue.of(textLoader, placeholder, ttl, unit);
+        return value.bind(textLine(value));
+    }
+
+    /**
+     * Create a text line that can be clicked without interaction entities, for servers before 1.19.4.
+     * Clicks are only detected when the hologram is shown through an interactive pool.
+     */
+    public @NotNull ClickableTextLine clickableTextLine(@NotNull Function<@NotNull Player, @NotNull String> textSupplier) {
+        ClickableTextLine line = new ClickableTextLine(this, textSupplier);
+        return addLine(line);
+    }
+
     public @NotNull TextComponentLine componentLine(@NotNull Function<@NotNull Player, @NotNull Component> textSupplier) {
         TextComponentLine line = new TextComponentLine(this, textSupplier);
-        lines.add(line);
-        return line;
+        return addLine(line);
     }
 
     public Hologram componentLine(@NotNull Component text) {
@@ -106,8 +184,7 @@ public class Hologram {
     @ApiStatus.Experimental
     public @NotNull DisplayTextLine displayTextLine(@NotNull Function<@NotNull Player, @NotNull Component> textSupplier) {
         DisplayTextLine line = new DisplayTextLine(this, textSupplier);
-        lines.add(line);
-        return line;
+        return addLine(line);
     }
 
     public Hologram displayTextLine(@NotNull Component text) {
@@ -115,11 +192,31 @@ public class Hologram {
         return this;
     }
 
+    /**
+     * Create a display text line whose value is loaded asynchronously.
+     * @see #asyncTextLine(Function, String, long, TimeUnit)
+     */
+    @ApiStatus.Experimental
+    public @NotNull DisplayTextLine asyncDisplayTextLine(@NotNull Function<@NotNull Player, @NotNull CompletableFuture<Component>> textLoader,
+                                                         @NotNull Component placeholder, long ttl, @NotNull TimeUnit unit) {
+        AsyncValue<Component> value = AsyncValue.of(textLoader, placeholder, ttl, unit);
+        return value.bind(displayTextLine(value));
+    }
+
+    /**
+     * Create a text display line made of several rows, each with its own value function.
+     * @see TextBlockLine
+     */
+    @ApiStatus.Experimental
+    public @NotNull TextBlockLine textBlock() {
+        TextBlockLine line = new TextBlockLine(this);
+        return addLine(line);
+    }
+
     @ApiStatus.Experimental
     public @NotNull DisplayBlockLine displayBlockLine(@NotNull Function<@NotNull Player, @NotNull Material> materialSupplier) {
         DisplayBlockLine line = new DisplayBlockLine(this, materialSupplier);
-        lines.add(line);
-        return line;
+        return addLine(line);
     }
 
     public Hologram displayBlockLine(@NotNull Material material) {
@@ -130,8 +227,7 @@ public class Hologram {
     @ApiStatus.Experimental
     public @NotNull DisplayItemLine displayItemLine(@NotNull Function<@NotNull Player, @NotNull ItemStack> itemSupplier) {
         DisplayItemLine line = new DisplayItemLine(this, itemSupplier);
-        lines.add(line);
-        return line;
+        return addLine(line);
     }
 
     public Hologram displayItemLine(@NotNull ItemStack material) {
@@ -142,8 +238,7 @@ public class Hologram {
     @ApiStatus.Experimental
     protected @NotNull InteractionLine interactionLine() {
         InteractionLine line = new InteractionLine(this);
-        lines.add(line);
-        return line;
+        return addLine(line);
     }
 
     /**
@@ -159,47 +254,206 @@ public class Hologram {
     @ApiStatus.Experimental
     public @NotNull CompositeDisplayLine compositeLine() {
         CompositeDisplayLine line = new CompositeDisplayLine(this);
-        lines.add(line);
-        return line;
+        return addLine(line);
     }
 
     public void teleport(@NotNull Location to) {
         this.location = to.clone();
 
-        // update the location of all lines
-        pvt.updateLinesLocation();
+        // update the location of all lines, the layout itself is cached
+        pvt.moveLines();
 
         // send teleport packets to all players seeing this hologram
+        HologramRig rig = this.rig;
         for (Player seeingPlayer : pvt.getSeeingPlayers()) {
-            for (Line<?> line : lines) {
-                line.teleport(seeingPlayer);
+            if (rig != null) {
+                rig.teleport(seeingPlayer, location);
+            }
+            for (Line<?> line : lines.array) {
+                if (line.isRiding()) {
+                    line.teleportUnrigged(seeingPlayer);
+                } else {
+                    line.teleport(seeingPlayer);
+                }
             }
         }
     }
 
+    /**
+     * Make the display lines of this hologram ride a single invisible entity, with their vertical
+     * spacing applied through display translation. Moving the hologram then sends one teleport packet
+     * per viewer instead of one per line; other line types are still teleported one by one.
+     * <p>Must be called before the hologram is shown. Has no effect before 1.21.10.</p>
+     */
+    public Hologram rig() {
+        if (!pvt.getSeeingPlayers().isEmpty()) {
+            throw new IllegalStateException("Cannot rig a hologram that is already shown.");
+        }
+        if (rig == null && attachedTo == null && HologramRig.isSupported()) {
+            rig = new HologramRig();
+            pvt.setRigged(true);
+            relayout();
+        }
+        return this;
+    }
+
+    public boolean isRigged() {
+        return rig != null;
+    }
+
+    /**
+     * Make this hologram follow an entity such as an NPC or a player. The display lines ride the entity
+     * on the client, so it follows it without any position packet; the hologram location is kept at the
+     * top of the entity by the pool tick, where passengers sit, and the lines are laid out from there.
+     * Lines that can't ride (see {@link #rig()}) are teleported when the entity moves.
+     * <p>The lines are mounted again when the entity is spawned again for a viewer or changes world.
+     * The hologram is detached once the entity dies, despawns or its player leaves.
+     * Must be called before the hologram is shown; before 1.21.10 every line is teleported instead.</p>
+     */
+    public Hologram attachTo(@NotNull Entity entity) {
+        if (!pvt.getSeeingPlayers().isEmpty()) {
+            throw new IllegalStateException("Cannot attach a hologram that is already shown.");
+        }
+        Entity previous = attachedTo;
+        if (previous != null) {
+            lib.getAttachmentIndex().detach(previous, this);
+        }
+        HologramRig rig = this.rig;
+        if (rig != null) {
+            // the entity replaces the rig root
+            this.rig = null;
+            rig.release();
+        }
+
+        attachedTo = entity;
+        attachmentTarget = null;
+        location = attachmentLocation(entity);
+        lib.getAttachmentIndex().follow(this);
+        if (HologramRig.isSupported()) {
+            lib.getAttachmentIndex().attach(entity, this);
+        }
+        pvt.setRigged(HologramRig.isSupported());
+        relayout();
+        return this;
+    }
+
+    /**
+     * Stop following the entity, leaving the hologram where it is. The lines are spawned again for the current viewers.
+     */
+    public Hologram detach() {
+        Entity entity = attachedTo;
+        if (entity == null) {
+            return this;
+        }
+        // riding lines keep their vehicle and translation on the client
+        for (Player player : pvt.getSeeingPlayers()) {
+            for (Line<?> line : lines.array) {
+                line.hide(player);
+            }
+        }
+        lib.getAttachmentIndex().detach(entity, this);
+        lib.getAttachmentIndex().unfollow(this);
+        attachedTo = null;
+        attachmentTarget = null;
+        pvt.setRigged(false);
+        if (loaded) {
+            pvt.updateLinesLocation();
+        }
+        for (Player player : pvt.getSeeingPlayers()) {
+            for (Line<?> line : lines.array) {
+                line.show(player);
+            }
+        }
+        return this;
+    }
+
+    public @Nullable Entity getAttachedTo() {
+        return attachedTo;
+    }
+
+    /**
+     * Read the position of the entity this hologram is attached to, called by the pool on the main thread
+     * for the holograms of {@link AttachmentIndex#getAttachedHolograms()}.
+     * The hologram is detached, and stays where it is, once the entity died, despawned or its player left.
+     */
+    @ApiStatus.Internal
+    public void sampleAttachment() {
+        Entity entity = attachedTo;
+        if (entity == null) {
+            return;
+        }
+        if (!entity.isValid()) {
+            detach();
+            return;
+        }
+        attachmentTarget = attachmentLocation(entity);
+    }
+
+    /**
+     * Move the hologram to the last sampled position of the entity it is attached to, called by the pool tick.
+     * Riding lines are only moved server side.
+     */
+    @ApiStatus.Internal
+    public void followAttachment() {
+        Location to = attachmentTarget;
+        if (to == null || attachedTo == null) {
+            return;
+        }
+        if (!to.equals(location)) {
+            teleport(to);
+        }
+    }
+
+    private static Location attachmentLocation(Entity entity) {
+        return entity.getLocation().add(0, entity.getHeight(), 0);
+    }
+
+    public boolean isDestroyed() {
+        return destroyed;
+    }
+
     public boolean isShownFor(@NotNull Player player) {
         return pvt.getSeeingPlayers().contains(player);
     }
 
     public <T extends Hologram> void show(@NotNull IHologramPool<T> pool) {
-        if (pool.getHolograms().stream().anyMatch(h -> h.getId().equals(this.id))) {
+        if (!pool.register((T) this)) {
             throw new KeyAlreadyExistsException(this.id);
         }
-        pool.getHolograms().add((T) this);
+        if (pool.isInteractive()) {
+            indexed = true;
+            lib.getEntityIndex().register(this);
+        }
     }
 
     public void show(@NotNull Player player) {
-        if (!loaded) {
-            if(lines.isEmpty()) {
-                throw new IllegalStateException("Cannot show hologram with no lines.");
+        synchronized (lifecycleLock) {
+            // a pool tick may still be evaluating a hologram destroyed from another thread
+            if (destroyed) {
+                return;
+            }
+            if (!loaded) {
+                if(lines.array.length == 0) {
+                    throw new IllegalStateException("Cannot show hologram with no lines.");
+                }
+                pvt.updateLinesLocation();
+                loaded = true;
             }
-            pvt.updateLinesLocation();
-            loaded = true;
-        }
 
-        pvt.getSeeingPlayers().add(player);
-        for (Line<?> line : lines) {
-            (line).show(player);
+            pvt.getSeeingPlayers().add(player);
+            HologramRig rig = this.rig;
+            if (rig != null) {
+                rig.spawn(player, location);
+            }
+            for (Line<?> line : lines.array) {
+                (line).show(player);
+                line.startRefresh();
+                lib.getAnimationEngine().resume(line);
+            }
+            mount(player, rig);
+            if (indexed) {
+                lib.getHitTestIndex().add(player, this);
+            }
         }
 
         if (pvt.getShowEvent() != null) {
@@ -208,50 +462,383 @@ public class Hologram {
     }
 
     public void hide(@NotNull Player player) {
-        for (Line<?> line : lines) {
-            (line).hide(player);
+        synchronized (lifecycleLock) {
+            // a stale pool tick must not destroy entity IDs that were released and may be reused
+            if (destroyed) {
+                return;
+            }
+            hideLines(player);
         }
-        pvt.getSeeingPlayers().remove(player);
 
         if (pvt.getHideEvent() != null) {
             pvt.getHideEvent().onHide(player);
         }
     }
 
+    private void hideLines(Player player) {
+        for (Line<?> line : lines.array) {
+            (line).hide(player);
+        }
+        HologramRig rig = this.rig;
+        if (rig != null) {
+            rig.destroy(player);
+        }
+        pvt.getSeeingPlayers().remove(player);
+        pvt.removeViewerDistance(player);
+        lib.getHitTestIndex().remove(player, this);
+        if (pvt.getSeeingPlayers().isEmpty()) {
+            for (Line<?> line : lines.array) {
+                line.stopRefresh();
+                lib.getAnimationEngine().pause(line);
+            }
+        }
+    }
+
     public void hide(@NotNull IHologramPool<?> pool) {
-        boolean removed = pool.getHolograms().remove(this);
-        if (removed) {
+        if (removeFrom(pool)) {
             for (Player player : pvt.getSeeingPlayers()) {
                 hide(player);
             }
         }
     }
 
+    private boolean removeFrom(IHologramPool<?> pool) {
+        boolean removed = pool.getHolograms().remove(this);
+        if (removed && indexed) {
+            indexed = false;
+            lib.getEntityIndex().unregister(this);
+        }
+        return removed;
+    }
+
+    /**
+     * Remove this hologram from the pool, hide it from every player who sees it and free its entity IDs
+     * for reuse. Players are hidden even if the hologram was shown outside of the pool, so no client
+     * keeps an entity whose ID is handed to another hologram.
+     * The hologram is ignored by {@link #show(Player)} afterwards; destroying it again does nothing.
+     */
+    public void destroy(@NotNull IHologramPool<?> pool) {
+        List<Player> hidden = new ArrayList<>();
+        synchronized (lifecycleLock) {
+            if (destroyed) {
+                return;
+            }
+            destroyed = true;
+            removeFrom(pool);
+            for (Player player : pvt.getSeeingPlayers()) {
+                hideLines(player);
+                hidden.add(player);
+            }
+        }
+        if (pvt.getHideEvent() != null) {
+            for (Player player : hidden) {
+                pvt.getHideEvent().onHide(player);
+            }
+        }
+        // hides arriving from now on see the hologram destroyed, the IDs are safe to reuse
+        for (Line<?> line : lines.array) {
+            line.stopRefresh();
+            line.cancelAnimation();
+            line.releaseIds();
+        }
+        HologramRig rig = this.rig;
+        if (rig != null) {
+            this.rig = null;
+            rig.release();
+        }
+        Entity entity = attachedTo;
+        if (entity != null) {
+            lib.getAttachmentIndex().detach(entity, this);
+            lib.getAttachmentIndex().unfollow(this);
+        }
+    }
+
     public void updateLines() {
-        for (Line<?> line : lines) {
+        for (Line<?> line : lines.array) {
             line.updateAll();
         }
     }
 
+    /**
+     * Insert a line at the given position, from 0 to the number of lines. If the hologram is visible
+     * the line is spawned for its current viewers, and only the lines whose position changed, those
+     * below the new one, are teleported.
+     *
+     * @throws IndexOutOfBoundsException if the index is negative or greater than the number of lines
+     */
+    public <L extends Line<?>> @NotNull L insertLine(int index, @NotNull L line) {
+        return insert(line, false, index);
+    }
+
+    private <L extends Line<?>> @NotNull L insert(L line, boolean append, int index) {
+        synchronized (linesLock) {
+            Line<?>[] current = lines.array;
+            if (append) {
+                index = current.length;
+            } else if (index < 0 || index > current.length) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + current.length);
+            }
+            Line<?>[] updated = new Line<?>[current.length + 1];
+            System.arraycopy(current, 0, updated, 0, index);
+            updated[index] = line;
+            System.arraycopy(current, index, updated, index + 1, current.length - index);
+            lines = lines.next(updated);
+        }
+        pvt.invalidateLayout(index);
+        if (indexed) {
+            lib.getEntityIndex().register(line);
+        }
+        if (loaded) {
+            List<Line<?>> moved = pvt.updateLinesLocation();
+            showLine(line);
+            teleportLines(moved, line);
+            remount();
+        }
+        return line;
+    }
+
+    /**
+     * Remove a line and destroy its entity for the current viewers.
+     *
+     * @return false if the line wasn't part of this hologram
+     */
+    public boolean removeLine(@NotNull Line<?> line) {
+        int index;
+        synchronized (linesLock) {
+            Line<?>[] current = lines.array;
+            index = indexOf(current, line);
+            if (index == -1) {
+                return false;
+            }
+            Line<?>[] updated = new Line<?>[current.length - 1];
+            System.arraycopy(current, 0, updated, 0, index);
+            System.arraycopy(current, index + 1, updated, index, current.length - index - 1);
+            lines = lines.next(updated);
+        }
+        pvt.invalidateLayout(index);
+        hideLine(line);
+        if (loaded) {
+            teleportLines(pvt.updateLinesLocation(), null);
+            remount();
+        }
+        return true;
+    }
+
+    /**
+     * Replace the lines of this hologram. Lines present in both lists keep their entities and are only
+     * teleported if their position changed; removed lines are destroyed and new ones spawned.
+     */
     public void replaceLines(@NotNull List<? extends Line<?>> newLines) {
-        // hide current lines from all players
+        Set<Line<?>> retained = Collections.newSetFromMap(new IdentityHashMap<>());
+        retained.addAll(newLines);
+
+        Line<?>[] current;
+        Line<?>[] updated = newLines.toArray(new Line<?>[0]);
+        synchronized (linesLock) {
+            current = lines.array;
+            // readers see either the old or the new lines, never a partial list
+            lines = lines.next(updated);
+        }
+
+        Set<Line<?>> previous = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Line<?> line : current) {
+            if (retained.contains(line)) {
+                previous.add(line);
+            } else {
+                hideLine(line);
+            }
+        }
+
+        // lines before the first difference keep their cached layout
+        int unchanged = 0;
+        while (unchanged < current.length && unchanged < updated.length && current[unchanged] == updated[unchanged]) {
+            unchanged++;
+        }
+        pvt.invalidateLayout(unchanged);
+        if (updated.length == 0) {
+            loaded = false;
+            return;
+        }
+        List<Line<?>> moved = pvt.updateLinesLocation();
+        loaded = true;
+
+        for (Line<?> line : lines.array) {
+            if (!previous.contains(line)) {
+                if (indexed) {
+                    lib.getEntityIndex().register(line);
+                }
+                showLine(line);
+            }
+        }
+        for (Line<?> line : moved) {
+            if (previous.contains(line)) {
+                for (Player player : pvt.getSeeingPlayers()) {
+                    line.teleport(player);
+                }
+            }
+        }
+        remount();
+    }
+
+    /**
+     * Stack the lines from the hologram location downwards, using the height of each line
+     * plus the given spacing. Line offsets are then relative to the stacked position.
+     */
+    public Hologram stackLines(double lineSpacing) {
+        pvt.setStacked(true, lineSpacing);
+        relayout();
+        return this;
+    }
+
+    public Hologram stackLines() {
+        return stackLines(0);
+    }
+
+    /**
+     * Apply changed line offsets or heights, moving the affected lines for the current viewers.
+     */
+    public void relayout() {
+        if (loaded) {
+            teleportLines(pvt.updateLinesLocation(), null);
+        }
+    }
+
+    private void teleportLines(List<Line<?>> moved, @Nullable Line<?> except) {
+        for (Line<?> line : moved) {
+            if (line == except) {
+                continue;
+            }
+            for (Player player : pvt.getSeeingPlayers()) {
+                line.teleport(player);
+            }
+        }
+    }
+
+    /**
+     * Send the current passengers of the rig, the packet replaces the previous list.
+     */
+    private void remount() {
+        HologramRig rig = this.rig;
         for (Player player : pvt.getSeeingPlayers()) {
-            for (Line<?> line : lines) {
-                line.hide(player);
+            mount(player, rig);
+        }
+    }
+
+    private void mount(Player player, @Nullable HologramRig rig) {
+        if (rig != null) {
+            rig.mount(player, riderIds());
+            return;
+        }
+        Entity entity = attachedTo;
+        if (entity != null && HologramRig.isSupported()) {
+            lib.getAttachmentIndex().mount(player, entity.getEntityId());
+        }
+    }
+
+    /**
+     * IDs of the entities riding the rig root or the attached entity, shared and not to be modified.
+     * Read from Netty threads for every passengers packet, so they are only collected again after the
+     * lines or their riding state changed.
+     */
+    int[] riderIds() {
+        LineSnapshot snapshot = lines;
+        int stamp = riderStamp;
+        RiderCache cache = riderCache;
+        if (cache != null && cache.snapshot == snapshot && cache.stamp == stamp) {
+            return cache.ids;
+        }
+        Line<?>[] array = snapshot.array;
+        int[][] lineIds = new int[array.length][];
+        int count = 0;
+        for (int i = 0; i < array.length; i++) {
+            if (array[i].isRiding()) {
+                lineIds[i] = array[i].getRiderIds();
+                count += lineIds[i].length;
+            }
+        }
+        int[] riders = new int[count];
+        int size = 0;
+        for (int[] ids : lineIds) {
+            if (ids != null) {
+                System.arraycopy(ids, 0, riders, size, ids.length);
+                size += ids.length;
             }
         }
+        riderCache = new RiderCache(snapshot, stamp, riders);
+        return riders;
+    }
 
-        lines.clear();
-        loaded = false;
-        lines.addAll(newLines);
-        pvt.updateLinesLocation();
+    /**
+     * Collect the rider IDs again on next use, called when a line starts or stops riding or its entities change.
+     */
+    @ApiStatus.Internal
+    public void invalidateRiders() {
+        riderStamp++;
+    }
 
-        // show new lines to all players
+    private void showLine(Line<?> line) {
+        if (pvt.getSeeingPlayers().isEmpty()) {
+            return;
+        }
         for (Player player : pvt.getSeeingPlayers()) {
-            for (Line<?> line : lines) {
-                line.show(player);
+            line.show(player);
+            if (indexed) {
+                lib.getHitTestIndex().add(player, line);
+            }
+        }
+        line.startRefresh();
+        lib.getAnimationEngine().resume(line);
+    }
+
+    private void hideLine(Line<?> line) {
+        for (Player player : pvt.getSeeingPlayers()) {
+            line.hide(player);
+            lib.getHitTestIndex().remove(player, line);
+        }
+        line.stopRefresh();
+        lib.getAnimationEngine().pause(line);
+        if (indexed) {
+            lib.getEntityIndex().unregister(line);
+        }
+    }
+
+    private static int indexOf(Line<?>[] lines, Line<?> line) {
+        for (int i = 0; i < lines.length; i++) {
+            if (lines[i] == line) {
+                return i;
             }
         }
+        return -1;
+    }
+
+    private static final class RiderCache {
+        final LineSnapshot snapshot;
+        final int stamp;
+        final int[] ids;
+
+        RiderCache(LineSnapshot snapshot, int stamp, int[] ids) {
+            this.snapshot = snapshot;
+            this.stamp = stamp;
+            this.ids = ids;
+        }
+    }
+
+    private static final class LineSnapshot {
+        static final LineSnapshot EMPTY = new LineSnapshot(new Line<?>[0], 0);
+
+        final Line<?>[] array;
+        final List<Line<?>> list;
+        final int version;
+
+        private LineSnapshot(Line<?>[] array, int version) {
+            this.array = array;
+            this.list = Collections.unmodifiableList(Arrays.asList(array));
+            this.version = version;
+        }
+
+        LineSnapshot next(Line<?>[] array) {
+            return new LineSnapshot(array, version + 1);
+        }
     }
 
     @Override
@@ -0,0 +1,88 @@
+package org.holoeasy.hologram;
+
+import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.protocol.entity.data.EntityData;
+import com.github.retrooper.packetevents.protocol.entity.data.EntityDataTypes;
+import com.github.retrooper.packetevents.protocol.entity.type.EntityTypes;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerDestroyEntities;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerEntityMetadata;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerEntityTeleport;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerSetPassengers;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerSpawnEntity;
+import io.github.retrooper.packetevents.util.SpigotConversionUtil;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.holoeasy.util.EntityIdAllocator;
+import org.holoeasy.util.FastUUID;
+import org.holoeasy.util.VersionEnum;
+import org.holoeasy.util.VersionUtil;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Invisible root entity that the display entities of a hologram ride, so moving the hologram
+ * only needs one teleport packet per viewer.
+ * <p>The root is a zero-sized interaction entity: it renders nothing and its passengers sit exactly
+ * at its position, each line being offset vertically through its display translation.</p>
+ */
+class HologramRig {
+
+    private final int rootId = EntityIdAllocator.allocate();
+    private final UUID rootUUID = FastUUID.randomUUID();
+    private final AtomicBoolean released = new AtomicBoolean(false);
+
+    /**
+     * Display translation is only sent with the current metadata layout (see addDisplayBaseMetadata),
+     * on older versions holograms keep teleporting each line.
+     */
+    static boolean isSupported() {
+        return VersionUtil.isAbove(VersionEnum.V1_21_10);
+    }
+
+    void spawn(Player player, Location location) {
+        WrapperPlayServerSpawnEntity spawn = new WrapperPlayServerSpawnEntity(
+                rootId,
+                rootUUID,
+                EntityTypes.INTERACTION,
+                SpigotConversionUtil.fromBukkitLocation(location),
+                location.getYaw(),
+                0,
+                null
+        );
+        PacketEvents.getAPI().getPlayerManager().sendPacket(player, spawn);
+
+        List<EntityData<?>> entityData = new ArrayList<>();
+        entityData.add(new EntityData<>(8, EntityDataTypes.FLOAT, 0f));
+        entityData.add(new EntityData<>(9, EntityDataTypes.FLOAT, 0f));
+        PacketEvents.getAPI().getPlayerManager().sendPacket(player, new WrapperPlayServerEntityMetadata(rootId, entityData));
+    }
+
+    void mount(Player player, int[] riders) {
+        PacketEvents.getAPI().getPlayerManager().sendPacket(player, new WrapperPlayServerSetPassengers(rootId, riders));
+    }
+
+    void teleport(Player player, Location location) {
+        WrapperPlayServerEntityTeleport packet = new WrapperPlayServerEntityTeleport(
+                rootId,
+                SpigotConversionUtil.fromBukkitLocation(location),
+                false
+        );
+        PacketEvents.getAPI().getPlayerManager().sendPacket(player, packet);
+    }
+
+    void destroy(Player player) {
+        PacketEvents.getAPI().getPlayerManager().sendPacket(player, new WrapperPlayServerDestroyEntities(rootId));
+    }
+
+    /**
+     * Return the root ID to the allocator, only the first call has an effect.
+     */
+    void release() {
+        if (released.compareAndSet(false, true)) {
+            EntityIdAllocator.release(rootId);
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package org.holoeasy.hologram;
+
+import net.kyori.adventure.text.Component;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.holoeasy.HoloEasy;
+import org.holoeasy.line.*;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Blueprint for many holograms with the same lines, e.g. one per shop.
+ * <p>
+ * The styling of each line is applied once to a prototype line when the template is built. Holograms
+ * created from the template copy it by reference, including the display metadata already built from it,
+ * so an instance only holds its location, entity IDs, viewers and value functions. Values can depend on
+ * a per-hologram context:
+ * </p>
+ * <pre>{@code
+ * HologramTemplate<Shop> template = HologramTemplate.<Shop>builder(lib)
+ *     .displayTextLine((shop, player) -> Component.text(shop.getName()), line -> line.shadow(true).scale(1.5f))
+ *     .textLine((shop, player) -> "Price: " + shop.getPrice(), line -> line.yOffset(-0.5))
+ *     .build();
+ *
+ * template.create(location, shop).show(pool);
+ * }</pre>
+ *
+ * @param <C> the context each hologram is created with
+ */
+public final class HologramTemplate<C> {
+
+    private final HoloEasy lib;
+    private final List<LineDefinition<C, ?, ?>> definitions;
+    private final double lineSpacing; // < 0 = not stacked
+
+    private HologramTemplate(HoloEasy lib, List<LineDefinition<C, ?, ?>> definitions, double lineSpacing) {
+        this.lib = lib;
+        this.definitions = definitions;
+        this.lineSpacing = lineSpacing;
+    }
+
+    public static <C> @NotNull Builder<C> builder(@NotNull HoloEasy lib) {
+        return new Builder<>(lib);
+    }
+
+    public @NotNull Hologram create(@NotNull Location location, C context) {
+        Hologram hologram = new Hologram(lib, location);
+        if (lineSpacing >= 0) {
+            hologram.stackLines(lineSpacing);
+        }
+        for (LineDefinition<C, ?, ?> definition : definitions) {
+            hologram.insertLine(hologram.getLines().size(), definition.create(hologram, context));
+        }
+        return hologram;
+    }
+
+    public @NotNull Hologram create(@NotNull Location location) {
+        return create(location, null);
+    }
+
+    public int getLineCount() {
+        return definitions.size();
+    }
+
+    private static final class LineDefinition<C, V, L extends Line<?>> {
+        final BiFunction<Hologram, Function<Player, V>, L> constructor;
+        final @Nullable Function<Player, V> staticValue;
+        final @Nullable BiFunction<C, Player, V> value;
+        final @Nullable Consumer<? super L> style;
+        L prototype;
+
+        LineDefinition(BiFunction<Hologram, Function<Player, V>, L> constructor, @Nullable Function<Player, V> staticValue,
+                       @Nullable BiFunction<C, Player, V> value, @Nullable Consumer<? super L> style) {
+            this.constructor = constructor;
+            this.staticValue = staticValue;
+            this.value = value;
+            this.style = style;
+        }
+
+        void buildPrototype(Hologram owner) {
+            prototype = constructor.apply(owner, player -> null);
+            if (style != null) {
+                style.accept(prototype);
+            }
+            prototype.prepareStyle();
+            // never shown
+            prototype.releaseIds();
+        }
+
+        L create(Hologram hologram, C context) {
+            Function<Player, V> function = staticValue;
+            if (function == null) {
+                BiFunction<C, Player, V> value = this.value;
+                function = player -> value.apply(context, player);
+            }
+            L line = constructor.apply(hologram, function);
+            line.copyStyle(prototype);
+            return line;
+        }
+    }
+
+    public static final class Builder<C> {
+        private final HoloEasy lib;
+        private final List<LineDefinition<C, ?, ?>> definitions = new ArrayList<>();
+        private double lineSpacing = -1;
+
+        private Builder(HoloEasy lib) {
+            this.lib = lib;
+        }
+
+        private <V, L extends Line<?>> Builder<C> add(BiFunction<Hologram, Function<Player, V>, L> constructor,
+                                                       BiFunction<C, Player, V> value, @Nullable Consumer<? super L> style) {
+            definitions.add(new LineDefinition<>(constructor, null, value, style));
+            return this;
+        }
+
+        public Builder<C> textLine(@NotNull String text) {
+            definitions.add(new LineDefinition<C, String, TextLine>(TextLine::new, player -> text, null, null));
+            return this;
+        }
+
+        public Builder<C> textLine(@NotNull BiFunction<C, Player, String> text) {
+            return add(TextLine::new, text, null);
+        }
+
+        public Builder<C> textLine(@NotNull BiFunction<C, Player, String> text, @NotNull Consumer<TextLine> style) {
+            return add(TextLine::new, text, style);
+        }
+
+        public Builder<C> clickableTextLine(@NotNull BiFunction<C, Player, String> text, @NotNull Consumer<ClickableTextLine> style) {
+            return add(ClickableTextLine::new, text, style);
+        }
+
+        public Builder<C> componentLine(@NotNull BiFunction<C, Player, Component> text, @Nullable Consumer<TextComponentLine> style) {
+            return add(TextComponentLine::new, text, style);
+        }
+
+        public Builder<C> itemLine(@NotNull BiFunction<C, Player, ItemStack> item, @Nullable Consumer<ItemLine> style) {
+            return add(ItemLine::new, item, style);
+        }
+
+        public Builder<C> blockLine(@NotNull BiFunction<C, Player, ItemStack> block, @Nullable Consumer<BlockLine> style) {
+            return add(BlockLine::new, block, style);
+        }
+
+        public Builder<C> displayTextLine(@NotNull Component text, @Nullable Consumer<DisplayTextLine> style) {
+            definitions.add(new LineDefinition<C, Component, DisplayTextLine>(DisplayTextLine::new, player -> text, null, style));
+            return this;
+        }
+
+        public Builder<C> displayTextLine(@NotNull BiFunction<C, Player, Component> text, @Nullable Consumer<DisplayTextLine> style) {
+            return add(DisplayTextLine::new, text, style);
+        }
+
+        public Builder<C> displayItemLine(@NotNull BiFunction<C, Player, ItemStack> item, @Nullable Consumer<DisplayItemLine> style) {
+            return add(DisplayItemLine::new, item, style);
+        }
+
+        public Builder<C> displayBlockLine(@NotNull BiFunction<C, Player, Material> material, @Nullable Consumer<DisplayBlockLine> style) {
+            return add(DisplayBlockLine::new, material, style);
+        }
+
+        public Builder<C> interactionLine(@NotNull Consumer<InteractionLine> style) {
+            definitions.add(new LineDefinition<C, Object, InteractionLine>((hologram, value) -> new InteractionLine(hologram), player -> null, null, style));
+            return this;
+        }
+
+        /**
+         * Stack the lines of created holograms, see {@link Hologram#stackLines(double)}.
+         */
+        public Builder<C> stackLines(double lineSpacing) {
+            this.lineSpacing = Math.max(lineSpacing, 0);
+            return this;
+        }
+
+        public @NotNull HologramTemplate<C> build() {
+            if (definitions.isEmpty()) {
+                throw new IllegalStateException("Cannot build a template with no lines.");
+            }
+            // prototypes are styled once and never shown
+            Hologram owner = new Hologram(lib, new Location(null, 0, 0, 0));
+            for (LineDefinition<C, ?, ?> definition : definitions) {
+                definition.buildPrototype(owner);
+            }
+            return new HologramTemplate<>(lib, Collections.unmodifiableList(new ArrayList<>(definitions)), lineSpacing);
+        }
+    }
+}
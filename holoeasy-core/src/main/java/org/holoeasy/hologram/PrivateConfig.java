@@ -3,7 +3,14 @@ package org.holoeasy.hologram;
 import org.bukkit.Location;
 import org.bukkit.entity.Player;
 import org.holoeasy.line.Line;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -13,6 +20,15 @@ public class PrivateConfig {
     private ShowEvent showEvent;
     private HideEvent hideEvent;
     private final Set<Player> seeingPlayers = ConcurrentHashMap.newKeySet();
+    private final Map<Player, ViewerDistance> viewerDistances = new ConcurrentHashMap<>();
+
+    // Layout: offsets below the hologram location by line index, valid before layoutValidUpTo
+    private boolean stacked = false;
+    private double lineSpacing = 0;
+    private double[] lineOffsets = new double[0];
+    private int layoutValidUpTo = 0;
+    // Display lines ride the rig root at the hologram location, their offset goes into the translation
+    private boolean rigged = false;
 
     public PrivateConfig(Hologram hologram, ShowEvent showEvent, HideEvent hideEvent) {
         this.hologram = hologram;
@@ -20,14 +36,113 @@ public class PrivateConfig {
         this.hideEvent = hideEvent;
     }
 
-    void updateLinesLocation() {
+    /**
+     * Recompute the position of every line from the first one whose layout was invalidated.
+     *
+     * @return the lines whose position changed, the list is only allocated if there are any
+     */
+    synchronized List<Line<?>> updateLinesLocation() {
+        List<Line<?>> moved = updateLinesLocation(hologram.getLineArray(), true);
+        return moved != null ? moved : Collections.emptyList();
+    }
+
+    /**
+     * @param collect whether to return the moved lines
+     * @return the moved lines, or null if none moved or they weren't collected
+     */
+    private @Nullable List<Line<?>> updateLinesLocation(Line<?>[] lines, boolean collect) {
+        int size = lines.length;
+        if (lineOffsets.length < size) {
+            lineOffsets = Arrays.copyOf(lineOffsets, Math.max(size, lineOffsets.length * 2));
+        }
+
+        int from = Math.min(layoutValidUpTo, size);
+        for (int i = from; i < size; i++) {
+            if (!stacked || i == 0) {
+                lineOffsets[i] = 0;
+            } else {
+                lineOffsets[i] = lineOffsets[i - 1] - lines[i - 1].getHeight() - lineSpacing;
+            }
+        }
+        layoutValidUpTo = size;
+
+        List<Line<?>> moved = null;
+        Location base = hologram.getLocation();
+        for (int i = from; i < size; i++) {
+            Line<?> line = lines[i];
+            if (positionLine(line, base, lineOffsets[i]) && collect) {
+                if (moved == null) {
+                    moved = new ArrayList<>();
+                }
+                moved.add(line);
+            }
+        }
+        return moved;
+    }
+
+    private boolean positionLine(Line<?> line, Location base, double lineOffset) {
+        double offset = lineOffset + line.yOffset() + line.getAnchorOffset();
+        boolean riding = rigged && line.getRiderIds().length > 0;
+        boolean wasRiding = line.isRiding();
+        boolean changed;
+        if (riding) {
+            boolean moved = line.setPosition(base.getX(), base.getY(), base.getZ(), base.getYaw());
+            changed = line.setRigOffset(true, (float) offset) || moved;
+        } else {
+            boolean moved = line.setPosition(base.getX(), base.getY() + offset, base.getZ(), base.getYaw());
+            changed = line.setRigOffset(false, 0) || moved;
+        }
+        if (wasRiding != riding) {
+            hologram.invalidateRiders();
+        }
+        return changed;
+    }
+
+    /**
+     * Move every line after the hologram itself moved, reusing the cached layout.
+     */
+    synchronized void moveLines() {
+        // same snapshot for the layout and the move, every line is positioned below anyway
+        Line<?>[] lines = hologram.getLineArray();
+        updateLinesLocation(lines, false);
+        Location base = hologram.getLocation();
+        for (int i = 0; i < lines.length; i++) {
+            positionLine(lines[i], base, lineOffsets[i]);
+        }
+    }
+
+    /**
+     * Recompute the layout from the given line index on the next update.
+     */
+    synchronized void invalidateLayout(int fromIndex) {
+        layoutValidUpTo = Math.min(layoutValidUpTo, Math.max(fromIndex, 0));
+    }
 
-        for (int i = 0; i < hologram.getLines().size(); i++) {
-            Line<?> tempLine = hologram.getLines().get(i);
-            Location loc = hologram.getLocation().clone();
-            loc = loc.clone().add(0, tempLine.yOffset(), 0);
-            tempLine.setCurrentLocation(loc);
+    @ApiStatus.Internal
+    public void invalidateLayout(Line<?> line) {
+        synchronized (this) {
+            if (layoutValidUpTo == 0) {
+                return;
+            }
         }
+        Line<?>[] lines = hologram.getLineArray();
+        for (int i = 0; i < lines.length; i++) {
+            if (lines[i] == line) {
+                invalidateLayout(i);
+                return;
+            }
+        }
+    }
+
+    synchronized void setStacked(boolean stacked, double lineSpacing) {
+        this.stacked = stacked;
+        this.lineSpacing = lineSpacing;
+        layoutValidUpTo = 0;
+    }
+
+    synchronized void setRigged(boolean rigged) {
+        this.rigged = rigged;
+        layoutValidUpTo = 0;
     }
 
     public Hologram getHologram() {
@@ -53,4 +168,31 @@ public class PrivateConfig {
     public Set<Player> getSeeingPlayers() {
         return seeingPlayers;
     }
+
+    /**
+     * Store the squared distance to a viewer, as computed by the pool tick.
+     */
+    public void setViewerDistanceSquared(Player player, double distanceSquared) {
+        ViewerDistance distance = viewerDistances.get(player);
+        if (distance == null) {
+            distance = viewerDistances.computeIfAbsent(player, p -> new ViewerDistance());
+        }
+        distance.squared = distanceSquared;
+    }
+
+    /**
+     * Get the last squared distance to a viewer, or 0 if the pool hasn't measured it yet.
+     */
+    public double getViewerDistanceSquared(Player player) {
+        ViewerDistance distance = viewerDistances.get(player);
+        return distance == null ? 0 : distance.squared;
+    }
+
+    public void removeViewerDistance(Player player) {
+        viewerDistances.remove(player);
+    }
+
+    private static final class ViewerDistance {
+        volatile double squared;
+    }
 }
\ No newline at end of file
@@ -1,19 +1,25 @@
 package org.holoeasy.line;
 
+import com.github.retrooper.packetevents.PacketEvents;
 import com.github.retrooper.packetevents.protocol.entity.data.EntityData;
 import com.github.retrooper.packetevents.protocol.entity.data.EntityDataTypes;
 import com.github.retrooper.packetevents.protocol.entity.type.EntityType;
 import com.github.retrooper.packetevents.util.Quaternion4f;
 import com.github.retrooper.packetevents.util.Vector3f;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerEntityMetadata;
 import org.bukkit.Color;
 import org.bukkit.entity.Player;
+import org.holoeasy.animation.Keyframe;
 import org.holoeasy.hologram.Hologram;
+import org.holoeasy.util.MetadataFields;
+import org.holoeasy.util.VersionEnum;
+import org.holoeasy.util.VersionUtil;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.Set;
 import java.util.function.Function;
 
 /**
@@ -40,17 +46,22 @@ public abstract class AbstractDisplayLine<T, SELF extends AbstractDisplayLine<T,
     protected static final int INDEX_DISPLAY_HEIGHT = 21;
     protected static final int INDEX_GLOW_COLOR_OVERRIDE = 22;
 
+    // Shared defaults, the vector types are immutable
+    private static final Vector3f ZERO = new Vector3f(0.0f, 0.0f, 0.0f);
+    private static final Vector3f ONE = new Vector3f(1.0f, 1.0f, 1.0f);
+    private static final Quaternion4f IDENTITY = new Quaternion4f(0.0f, 0.0f, 0.0f, 1.0f);
+
     // Track which metadata fields have been explicitly set
-    protected final Set<Integer> modifiedFields = new HashSet<>();
+    protected final MetadataFields modifiedFields = new MetadataFields();
 
     // Display base properties (defaults match Minecraft client defaults)
     protected int interpolationDelay = 0;
     protected int transformationInterpolationDuration = 0;
     protected int positionRotationInterpolationDuration = 0;
-    protected Vector3f translation = new Vector3f(0.0f, 0.0f, 0.0f);
-    protected Vector3f scale = new Vector3f(1.0f, 1.0f, 1.0f);
-    protected Quaternion4f rotationLeft = new Quaternion4f(0.0f, 0.0f, 0.0f, 1.0f);
-    protected Quaternion4f rotationRight = new Quaternion4f(0.0f, 0.0f, 0.0f, 1.0f);
+    protected Vector3f translation = ZERO;
+    protected Vector3f scale = ONE;
+    protected Quaternion4f rotationLeft = IDENTITY;
+    protected Quaternion4f rotationRight = IDENTITY;
     protected byte billboard = 0;
     protected int brightness = -1; // -1 = no override
     protected float viewRange = 1.0f;
@@ -60,6 +71,11 @@ public abstract class AbstractDisplayLine<T, SELF extends AbstractDisplayLine<T,
     protected float displayHeight = 0.0f;
     protected int glowColorOverride = -1; // -1 = no override
 
+    // Base metadata built from the fields above, rebuilt when modifiedFields changes.
+    // Lines created from the same template share it until they are restyled.
+    private volatile BaseMetadata baseMetadata;
+    private final int[] riderIds = {entityID};
+
     public AbstractDisplayLine(Hologram hologram, EntityType entityType, Function<Player, T> valueSupplier) {
         super(hologram, entityType, valueSupplier);
     }
@@ -75,6 +91,19 @@ public abstract class AbstractDisplayLine<T, SELF extends AbstractDisplayLine<T,
      * Subclasses should call this in their update() method.
      */
     protected void addDisplayBaseMetadata(List<EntityData<?>> entityData) {
+        BaseMetadata cached = baseMetadata;
+        int modCount = modifiedFields.getModCount();
+        float offset = riding ? rigOffset : 0;
+        if (cached == null || cached.modCount != modCount || cached.rigOffset != offset) {
+            List<EntityData<?>> built = new ArrayList<>();
+            buildDisplayBaseMetadata(built, offset);
+            cached = new BaseMetadata(modCount, offset, Collections.unmodifiableList(built));
+            baseMetadata = cached;
+        }
+        entityData.addAll(cached.entityData);
+    }
+
+    private void buildDisplayBaseMetadata(List<EntityData<?>> entityData, float rigOffset) {
         if (modifiedFields.contains(INDEX_INTERPOLATION_DELAY)) {
             entityData.add(new EntityData<>(INDEX_INTERPOLATION_DELAY, EntityDataTypes.INT, interpolationDelay));
         }
@@ -84,8 +113,8 @@ public abstract class AbstractDisplayLine<T, SELF extends AbstractDisplayLine<T,
         if (modifiedFields.contains(INDEX_POSITION_ROTATION_INTERPOLATION_DURATION)) {
             entityData.add(new EntityData<>(INDEX_POSITION_ROTATION_INTERPOLATION_DURATION, EntityDataTypes.INT, positionRotationInterpolationDuration));
         }
-        if (modifiedFields.contains(INDEX_TRANSLATION)) {
-            entityData.add(new EntityData<>(INDEX_TRANSLATION, EntityDataTypes.VECTOR3F, translation));
+        if (modifiedFields.contains(INDEX_TRANSLATION) || rigOffset != 0) {
+            entityData.add(new EntityData<>(INDEX_TRANSLATION, EntityDataTypes.VECTOR3F, rigTranslation(translation, rigOffset)));
         }
         if (modifiedFields.contains(INDEX_SCALE)) {
             entityData.add(new EntityData<>(INDEX_SCALE, EntityDataTypes.VECTOR3F, scale));
@@ -122,6 +151,124 @@ public abstract class AbstractDisplayLine<T, SELF extends AbstractDisplayLine<T,
         }
     }
 
+    private static Vector3f rigTranslation(Vector3f translation, float rigOffset) {
+        if (rigOffset == 0) {
+            return translation;
+        }
+        return new Vector3f(translation.getX(), translation.getY() + rigOffset, translation.getZ());
+    }
+
+    @Override
+    public int @NotNull [] getRiderIds() {
+        return riderIds;
+    }
+
+    /**
+     * While riding the rig, a layout change only moves the translation.
+     */
+    @Override
+    public void teleport(@NotNull Player player) {
+        if (!riding) {
+            super.teleport(player);
+            return;
+        }
+        List<EntityData<?>> entityData = new ArrayList<>();
+        entityData.add(new EntityData<>(INDEX_TRANSLATION, EntityDataTypes.VECTOR3F, rigTranslation(translation, rigOffset)));
+        PacketEvents.getAPI().getPlayerManager().sendPacket(player, new WrapperPlayServerEntityMetadata(entityID, entityData));
+    }
+
+    @Override
+    public void prepareStyle() {
+        addDisplayBaseMetadata(new ArrayList<>());
+    }
+
+    @Override
+    public void copyStyle(@NotNull Line<?> prototype) {
+        super.copyStyle(prototype);
+        if (!(prototype instanceof AbstractDisplayLine)) {
+            return;
+        }
+        AbstractDisplayLine<?, ?> other = (AbstractDisplayLine<?, ?>) prototype;
+        this.interpolationDelay = other.interpolationDelay;
+        this.transformationInterpolationDuration = other.transformationInterpolationDuration;
+        this.positionRotationInterpolationDuration = other.positionRotationInterpolationDuration;
+        this.translation = other.translation;
+        this.scale = other.scale;
+        this.rotationLeft = other.rotationLeft;
+        this.rotationRight = other.rotationRight;
+        this.billboard = other.billboard;
+        this.brightness = other.brightness;
+        this.viewRange = other.viewRange;
+        this.shadowRadius = other.shadowRadius;
+        this.shadowStrength = other.shadowStrength;
+        this.displayWidth = other.displayWidth;
+        this.displayHeight = other.displayHeight;
+        this.glowColorOverride = other.glowColorOverride;
+        this.modifiedFields.copyFrom(other.modifiedFields);
+        this.baseMetadata = other.baseMetadata;
+    }
+
+    private static final class BaseMetadata {
+        final int modCount;
+        final float rigOffset;
+        final List<EntityData<?>> entityData;
+
+        BaseMetadata(int modCount, float rigOffset, List<EntityData<?>> entityData) {
+            this.modCount = modCount;
+            this.rigOffset = rigOffset;
+            this.entityData = entityData;
+        }
+    }
+
+    /**
+     * Keyframe packets are written with the 1.21.10 metadata indices, older versions lay out
+     * the display fields differently.
+     */
+    public static boolean supportsKeyframes() {
+        return VersionUtil.isAbove(VersionEnum.V1_21_10);
+    }
+
+    /**
+     * Apply the keyframe's transformation to this line and build the metadata packet that makes
+     * the client interpolate to it over the keyframe duration.
+     *
+     * @throws IllegalStateException if keyframes aren't {@link #supportsKeyframes() supported} on this version
+     */
+    @ApiStatus.Internal
+    public @NotNull WrapperPlayServerEntityMetadata applyKeyframe(@NotNull Keyframe keyframe) {
+        if (!supportsKeyframes()) {
+            throw new IllegalStateException("Keyframe animations require 1.21.10 or newer.");
+        }
+        List<EntityData<?>> entityData = new ArrayList<>();
+
+        // A zero start delay restarts the interpolation from the current state
+        entityData.add(new EntityData<>(INDEX_INTERPOLATION_DELAY, EntityDataTypes.INT, 0));
+        entityData.add(new EntityData<>(INDEX_TRANSFORMATION_INTERPOLATION_DURATION, EntityDataTypes.INT, keyframe.getDuration()));
+
+        if (keyframe.getTranslation() != null) {
+            translation = keyframe.getTranslation();
+            modifiedFields.add(INDEX_TRANSLATION);
+            entityData.add(new EntityData<>(INDEX_TRANSLATION, EntityDataTypes.VECTOR3F, rigTranslation(translation, riding ? rigOffset : 0)));
+        }
+        if (keyframe.getScale() != null) {
+            scale = keyframe.getScale();
+            modifiedFields.add(INDEX_SCALE);
+            entityData.add(new EntityData<>(INDEX_SCALE, EntityDataTypes.VECTOR3F, scale));
+        }
+        if (keyframe.getRotationLeft() != null) {
+            rotationLeft = keyframe.getRotationLeft();
+            modifiedFields.add(INDEX_ROTATION_LEFT);
+            entityData.add(new EntityData<>(INDEX_ROTATION_LEFT, EntityDataTypes.QUATERNION, rotationLeft));
+        }
+        if (keyframe.getRotationRight() != null) {
+            rotationRight = keyframe.getRotationRight();
+            modifiedFields.add(INDEX_ROTATION_RIGHT);
+            entityData.add(new EntityData<>(INDEX_ROTATION_RIGHT, EntityDataTypes.QUATERNION, rotationRight));
+        }
+
+        return new WrapperPlayServerEntityMetadata(entityID, entityData);
+    }
+
     // ==================== Builder Methods ====================
 
     public SELF yOffset(double yOffset) {
@@ -129,6 +276,14 @@ public abstract class AbstractDisplayLine<T, SELF extends AbstractDisplayLine<T,
         return self();
     }
 
+    /**
+     * Refresh this line for its viewers every given number of ticks, 0 disables auto-refresh.
+     */
+    public SELF refreshEvery(int ticks) {
+        super.setRefreshInterval(ticks);
+        return self();
+    }
+
     /**
      * Set billboard constraint (rotation behavior)
      * @param billboard 0=FIXED, 1=VERTICAL, 2=HORIZONTAL, 3=CENTER
@@ -200,6 +355,7 @@ public abstract class AbstractDisplayLine<T, SELF extends AbstractDisplayLine<T,
     public SELF scale(float scale) {
         this.scale = new Vector3f(scale, scale, scale);
         modifiedFields.add(INDEX_SCALE);
+        invalidateLayout();
         return self();
     }
 
@@ -209,6 +365,7 @@ public abstract class AbstractDisplayLine<T, SELF extends AbstractDisplayLine<T,
     public SELF scale(float x, float y, float z) {
         this.scale = new Vector3f(x, y, z);
         modifiedFields.add(INDEX_SCALE);
+        invalidateLayout();
         return self();
     }
 
@@ -218,6 +375,7 @@ public abstract class AbstractDisplayLine<T, SELF extends AbstractDisplayLine<T,
     public SELF scale(@NotNull Vector3f scale) {
         this.scale = scale;
         modifiedFields.add(INDEX_SCALE);
+        invalidateLayout();
         return self();
     }
 
@@ -236,6 +394,7 @@ public abstract class AbstractDisplayLine<T, SELF extends AbstractDisplayLine<T,
     public SELF scaleY(float y) {
         this.scale = new Vector3f(scale.getX(), y, scale.getZ());
         modifiedFields.add(INDEX_SCALE);
+        invalidateLayout();
         return self();
     }
 
@@ -8,10 +8,10 @@ import com.github.retrooper.packetevents.protocol.player.Equipment;
 import com.github.retrooper.packetevents.protocol.player.EquipmentSlot;
 import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerEntityEquipment;
 import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerEntityMetadata;
-import io.github.retrooper.packetevents.util.SpigotConversionUtil;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 import org.holoeasy.hologram.Hologram;
+import org.holoeasy.util.ConversionCache;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.ArrayList;
@@ -29,6 +29,11 @@ public class BlockLine extends Line<ItemStack> {
         return Type.BLOCK_LINE;
     }
 
+    @Override
+    public double getHeight() {
+        return 0.75;
+    }
+
     @Override
     public void show(@NotNull Player player) {
         spawn(player);
@@ -50,7 +55,7 @@ public class BlockLine extends Line<ItemStack> {
     @Override
     public void update(@NotNull Player player) {
         List<Equipment> equipmentList = new ArrayList<>();
-        equipmentList.add(new Equipment(EquipmentSlot.HELMET, SpigotConversionUtil.fromBukkitItemStack(getValue(player))));
+        equipmentList.add(new Equipment(EquipmentSlot.HELMET, ConversionCache.item(getValue(player))));
         WrapperPlayServerEntityEquipment packet = new WrapperPlayServerEntityEquipment(entityID, equipmentList);
         PacketEvents.getAPI().getPlayerManager().sendPacket(player, packet);
     }
@@ -61,4 +66,9 @@ public class BlockLine extends Line<ItemStack> {
         super.setYOffset(yOffset);
         return this;
     }
+
+    public BlockLine refreshEvery(int ticks) {
+        super.setRefreshInterval(ticks);
+        return this;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,170 @@
+package org.holoeasy.line;
+
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.bukkit.util.Vector;
+import org.holoeasy.event.InteractHandler;
+import org.holoeasy.hologram.Hologram;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.Function;
+
+/**
+ * Text line that can be clicked on servers without interaction entities (before 1.19.4).
+ * <p>The armor stand name tag has no hitbox, so clicks are found server side: when a viewer swings
+ * or uses an item, their look ray is tested against the name tag, which always faces the viewer.
+ * The width of the text each viewer sees is estimated when it is sent, so a click never evaluates
+ * the value function.</p>
+ */
+public class ClickableTextLine extends TextLine {
+
+    // The client anchors the name tag half a block above the armor stand (1.975 blocks high), at 2.475,
+    // and draws the 9 pixel font downwards from there at 0.025 blocks a pixel: the text is centered
+    // 0.1125 lower, at 2.3625
+    private static final double NAME_TAG_CENTER = 2.3625;
+    // Average width of a character in blocks, at the default name tag scale
+    private static final double CHAR_WIDTH = 0.15;
+
+    private volatile InteractHandler interactHandler;
+    private float hitboxWidth = -1f; // -1 = estimate from the text
+    private float hitboxHeight = 0.3f;
+    // estimated width of the text last sent to each viewer, weak so players leaving without a hide are dropped
+    private final Map<Player, Float> textWidths = Collections.synchronizedMap(new WeakHashMap<>());
+
+    public ClickableTextLine(Hologram hologram, Function<Player, String> valueSupplier) {
+        super(hologram, valueSupplier);
+    }
+
+    @Override
+    public @NotNull Type getType() {
+        return Type.CLICKABLE_TEXT_LINE;
+    }
+
+    public @Nullable InteractHandler getInteractHandler() {
+        return interactHandler;
+    }
+
+    /**
+     * Get the distance along the look ray at which it hits this line's name tag,
+     * or -1 if it misses or the hit is further than {@code maxDistance}.
+     */
+    public double hitDistance(@NotNull Player player, @NotNull Location eye, @NotNull Vector direction, double maxDistance) {
+        if (!isPositioned() || hologram.getLocation().getWorld() != eye.getWorld()) {
+            return -1;
+        }
+        double centerX = getX();
+        double centerY = getY() + NAME_TAG_CENTER;
+        double centerZ = getZ();
+
+        // The name tag is a billboard: a vertical plane facing the viewer
+        double nx = eye.getX() - centerX;
+        double nz = eye.getZ() - centerZ;
+        double horizontal = Math.sqrt(nx * nx + nz * nz);
+        if (horizontal < 1.0E-4) {
+            return -1;
+        }
+        nx /= horizontal;
+        nz /= horizontal;
+
+        double denominator = direction.getX() * nx + direction.getZ() * nz;
+        if (denominator >= 0) {
+            // looking away from the plane
+            return -1;
+        }
+        double t = -horizontal / denominator;
+        if (t > maxDistance) {
+            return -1;
+        }
+
+        double dy = eye.getY() + direction.getY() * t - centerY;
+        if (Math.abs(dy) > hitboxHeight / 2) {
+            return -1;
+        }
+        double dx = eye.getX() + direction.getX() * t - centerX;
+        double dz = eye.getZ() + direction.getZ() * t - centerZ;
+        double lateral = dx * -nz + dz * nx;
+        if (Math.abs(lateral) > hitboxWidth(player) / 2) {
+            return -1;
+        }
+        return t;
+    }
+
+    @Override
+    public void copyStyle(@NotNull Line<?> prototype) {
+        super.copyStyle(prototype);
+        if (prototype instanceof ClickableTextLine) {
+            ClickableTextLine other = (ClickableTextLine) prototype;
+            this.interactHandler = other.interactHandler;
+            this.hitboxWidth = other.hitboxWidth;
+            this.hitboxHeight = other.hitboxHeight;
+        }
+    }
+
+    @Override
+    public void hide(@NotNull Player player) {
+        super.hide(player);
+        textWidths.remove(player);
+    }
+
+    @Override
+    protected void textSent(@NotNull Player player, @NotNull String text) {
+        textWidths.put(player, estimateWidth(text));
+    }
+
+    private double hitboxWidth(Player player) {
+        if (hitboxWidth >= 0) {
+            return hitboxWidth;
+        }
+        Float width = textWidths.get(player);
+        return width != null ? width : 0;
+    }
+
+    private static float estimateWidth(String text) {
+        int visible = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if ((c == '&' || c == '\u00A7') && i + 1 < text.length()) {
+                i++; // color code
+                continue;
+            }
+            visible++;
+        }
+        return (float) (visible * CHAR_WIDTH);
+    }
+
+    // Builder
+
+    /**
+     * Call the handler when a player clicks the text.
+     * It runs on the executor set with {@link org.holoeasy.HoloEasy#setInteractExecutor}.
+     */
+    public ClickableTextLine onInteract(@Nullable InteractHandler handler) {
+        this.interactHandler = handler;
+        return this;
+    }
+
+    /**
+     * Set the clickable area around the text, by default its estimated width and 0.3 blocks high.
+     */
+    public ClickableTextLine hitbox(float width, float height) {
+        this.hitboxWidth = width;
+        this.hitboxHeight = height;
+        return this;
+    }
+
+    @Override
+    public ClickableTextLine yOffset(double yOffset) {
+        super.setYOffset(yOffset);
+        return this;
+    }
+
+    @Override
+    public ClickableTextLine refreshEvery(int ticks) {
+        super.setRefreshInterval(ticks);
+        return this;
+    }
+}
@@ -7,6 +7,7 @@ import org.holoeasy.hologram.Hologram;
 import org.holoeasy.line.composite.AbstractDisplayElement;
 import org.holoeasy.line.composite.CompositeElement;
 import org.holoeasy.line.composite.SpacerElement;
+import org.holoeasy.util.TimingWheel;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
 
@@ -32,6 +33,7 @@ import java.util.List;
 public class CompositeDisplayLine extends Line<Void> {
 
     private final List<CompositeElement> elements = new ArrayList<>();
+    private final List<TimingWheel.Handle> elementRefreshHandles = new ArrayList<>();
 
     // Alignment options
     private Alignment alignment = Alignment.CENTER;
@@ -54,6 +56,8 @@ public class CompositeDisplayLine extends Line<Void> {
      */
     public CompositeDisplayLine add(@NotNull CompositeElement element) {
         elements.add(element);
+        hologram.reindex(this);
+        hologram.invalidateRiders();
         return this;
     }
 
@@ -90,6 +94,60 @@ public class CompositeDisplayLine extends Line<Void> {
         return this;
     }
 
+    /**
+     * Refresh all elements every given number of ticks.
+     * Use {@code refreshEvery} on an element to refresh it on its own.
+     */
+    public CompositeDisplayLine refreshEvery(int ticks) {
+        super.setRefreshInterval(ticks);
+        return this;
+    }
+
+    @Override
+    public synchronized void startRefresh() {
+        super.startRefresh();
+        if (!elementRefreshHandles.isEmpty()) {
+            return;
+        }
+        for (CompositeElement element : elements) {
+            if (element.hasEntity() && element.getRefreshInterval() > 0) {
+                elementRefreshHandles.add(hologram.getLib().scheduleRefresh(element.getRefreshInterval(), () -> refreshElement(element)));
+            }
+        }
+    }
+
+    @Override
+    public synchronized void stopRefresh() {
+        super.stopRefresh();
+        for (TimingWheel.Handle handle : elementRefreshHandles) {
+            handle.cancel();
+        }
+        elementRefreshHandles.clear();
+    }
+
+    @Override
+    public void releaseIds() {
+        super.releaseIds();
+        for (CompositeElement element : elements) {
+            element.releaseIds();
+        }
+    }
+
+    private void refreshElement(CompositeElement element) {
+        if (hologram.getPvt().getSeeingPlayers().isEmpty()) {
+            stopRefresh();
+            return;
+        }
+        int index = elements.indexOf(element);
+        if (index == -1) {
+            return;
+        }
+        float offset = calculateOffsets()[index];
+        for (Player player : hologram.getPvt().getSeeingPlayers()) {
+            element.update(player, offset, elementYTranslation(), 0);
+        }
+    }
+
     @Override
     public void show(@NotNull Player player) {
         Location loc = getLocation();
@@ -103,7 +161,7 @@ public class CompositeDisplayLine extends Line<Void> {
                 if (element instanceof AbstractDisplayElement) {
                     ((AbstractDisplayElement<?, ?>) element).setSpawnLocation(loc);
                 }
-                element.spawn(player, offsets[i], yTranslation, 0);
+                element.spawn(player, offsets[i], elementYTranslation(), 0);
             }
         }
     }
@@ -124,26 +182,71 @@ public class CompositeDisplayLine extends Line<Void> {
         for (int i = 0; i < elements.size(); i++) {
             CompositeElement element = elements.get(i);
             if (element.hasEntity()) {
-                element.update(player, offsets[i], yTranslation, 0);
+                element.update(player, offsets[i], elementYTranslation(), 0);
+            }
+        }
+    }
+
+    @Override
+    public int @NotNull [] getRiderIds() {
+        int count = 0;
+        for (CompositeElement element : elements) {
+            if (element.hasEntity()) {
+                count++;
+            }
+        }
+        int[] ids = new int[count];
+        int i = 0;
+        for (CompositeElement element : elements) {
+            if (element.hasEntity()) {
+                ids[i++] = element.getEntityId();
+            }
+        }
+        return ids;
+    }
+
+    @Override
+    public void teleportUnrigged(@NotNull Player player) {
+        if (!isPositioned()) return;
+
+        for (CompositeElement element : elements) {
+            if (element instanceof AbstractDisplayElement) {
+                ((AbstractDisplayElement<?, ?>) element).teleportHitbox(player, getX(), getY(), getZ(), getYaw());
             }
         }
     }
 
     @Override
     public void teleport(@NotNull Player player) {
-        Location loc = getLocation();
-        if (loc == null) return;
+        if (riding) {
+            // the elements ride the rig, only their translation and hitboxes move
+            update(player);
+            teleportUnrigged(player);
+            return;
+        }
+        if (!isPositioned()) return;
 
+        Location loc = null;
         for (CompositeElement element : elements) {
-            if (element.hasEntity()) {
-                if (element instanceof AbstractDisplayElement) {
-                    ((AbstractDisplayElement<?, ?>) element).setSpawnLocation(loc);
+            if (!element.hasEntity()) {
+                continue;
+            }
+            if (element instanceof AbstractDisplayElement) {
+                ((AbstractDisplayElement<?, ?>) element).teleport(player, getX(), getY(), getZ(), getYaw());
+            } else {
+                // custom elements only take a Location
+                if (loc == null) {
+                    loc = getLocation();
                 }
                 element.teleport(player, loc);
             }
         }
     }
 
+    private float elementYTranslation() {
+        return riding ? yTranslation + rigOffset : yTranslation;
+    }
+
     /**
      * Calculate X offsets for each element based on alignment.
      */
@@ -6,10 +6,10 @@ import com.github.retrooper.packetevents.protocol.entity.data.EntityDataTypes;
 import com.github.retrooper.packetevents.protocol.entity.type.EntityTypes;
 import com.github.retrooper.packetevents.protocol.world.states.WrappedBlockState;
 import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerEntityMetadata;
-import io.github.retrooper.packetevents.util.SpigotConversionUtil;
 import org.bukkit.Material;
 import org.bukkit.entity.Player;
 import org.holoeasy.hologram.Hologram;
+import org.holoeasy.util.ConversionCache;
 import org.holoeasy.util.VersionUtil;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
@@ -30,6 +30,11 @@ public class DisplayBlockLine extends AbstractDisplayLine<Material, DisplayBlock
         return Type.DISPLAY_BLOCK_LINE;
     }
 
+    @Override
+    public double getHeight() {
+        return scale.getY();
+    }
+
     @Override
     public void show(@NotNull Player player) {
         spawn(player);
@@ -43,7 +48,7 @@ public class DisplayBlockLine extends AbstractDisplayLine<Material, DisplayBlock
 
     @Override
     public void update(@NotNull Player player) {
-        WrappedBlockState blockState = SpigotConversionUtil.fromBukkitBlockData(getValue(player).createBlockData());
+        WrappedBlockState blockState = ConversionCache.blockState(getValue(player));
 
         List<EntityData<?>> entityData = new ArrayList<>();
 
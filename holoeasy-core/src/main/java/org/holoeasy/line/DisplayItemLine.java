@@ -5,11 +5,11 @@ import com.github.retrooper.packetevents.protocol.entity.data.EntityData;
 import com.github.retrooper.packetevents.protocol.entity.data.EntityDataTypes;
 import com.github.retrooper.packetevents.protocol.entity.type.EntityTypes;
 import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerEntityMetadata;
-import io.github.retrooper.packetevents.util.SpigotConversionUtil;
 import org.bukkit.entity.Item;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 import org.holoeasy.hologram.Hologram;
+import org.holoeasy.util.ConversionCache;
 import org.holoeasy.util.VersionUtil;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
@@ -33,6 +33,11 @@ public class DisplayItemLine extends AbstractDisplayLine<ItemStack, DisplayItemL
         return Type.DISPLAY_ITEM_LINE;
     }
 
+    @Override
+    public double getHeight() {
+        return 0.5 * scale.getY();
+    }
+
     @Override
     public void show(@NotNull Player player) {
         spawn(player);
@@ -47,7 +52,7 @@ public class DisplayItemLine extends AbstractDisplayLine<ItemStack, DisplayItemL
     @Override
     public void update(@NotNull Player player) {
         ItemStack bukkitItem = getValue(player);
-        com.github.retrooper.packetevents.protocol.item.ItemStack item = SpigotConversionUtil.fromBukkitItemStack(bukkitItem);
+        com.github.retrooper.packetevents.protocol.item.ItemStack item = ConversionCache.item(bukkitItem);
 
         List<EntityData<?>> entityData = new ArrayList<>();
 
@@ -89,6 +94,14 @@ public class DisplayItemLine extends AbstractDisplayLine<ItemStack, DisplayItemL
      *                    3=FIRST_PERSON_LEFT_HAND, 4=FIRST_PERSON_RIGHT_HAND,
      *                    5=HEAD, 6=GUI, 7=GROUND, 8=FIXED
      */
+    @Override
+    public void copyStyle(@NotNull Line<?> prototype) {
+        super.copyStyle(prototype);
+        if (prototype instanceof DisplayItemLine) {
+            this.itemDisplayType = ((DisplayItemLine) prototype).itemDisplayType;
+        }
+    }
+
     public DisplayItemLine itemDisplayType(byte displayType) {
         this.itemDisplayType = displayType;
         return this;
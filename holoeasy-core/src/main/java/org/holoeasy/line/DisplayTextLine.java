@@ -47,6 +47,11 @@ public class DisplayTextLine extends AbstractDisplayLine<Component, DisplayTextL
         return Type.DISPLAY_TEXT_LINE;
     }
 
+    @Override
+    public double getHeight() {
+        return 0.3 * scale.getY();
+    }
+
     @Override
     public void show(@NotNull Player player) {
         spawn(player);
@@ -123,6 +128,18 @@ public class DisplayTextLine extends AbstractDisplayLine<Component, DisplayTextL
         PacketEvents.getAPI().getPlayerManager().sendPacket(player, packet);
     }
 
+    @Override
+    public void copyStyle(@NotNull Line<?> prototype) {
+        super.copyStyle(prototype);
+        if (prototype instanceof DisplayTextLine) {
+            DisplayTextLine other = (DisplayTextLine) prototype;
+            this.lineWidth = other.lineWidth;
+            this.backgroundColor = other.backgroundColor;
+            this.textOpacity = other.textOpacity;
+            this.textOptions = other.textOptions;
+        }
+    }
+
     public DisplayTextLine lineWidth(int lineWidth) {
         this.lineWidth = lineWidth;
         modifiedFields.add(INDEX_LINE_WIDTH);
@@ -1,8 +1,11 @@
 package org.holoeasy.line;
 
 import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.protocol.entity.data.EntityData;
+import com.github.retrooper.packetevents.protocol.entity.data.EntityDataTypes;
 import com.github.retrooper.packetevents.protocol.entity.type.EntityTypes;
 import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerDestroyEntities;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerEntityMetadata;
 import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerEntityTeleport;
 import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerSpawnEntity;
 import io.github.retrooper.packetevents.util.SpigotConversionUtil;
@@ -10,17 +13,27 @@ import org.bukkit.Location;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.ApiStatus;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 public interface Interaction {
 
     int getInteractionEntityID();
 
+    /**
+     * UUID used when spawning the interaction entity, the same value on every call.
+     * By default a random UUID is created on the first call and cached, implementations may keep their own.
+     */
+    default UUID getInteractionEntityUUID() {
+        return InteractionUUIDs.get(this);
+    }
+
     @ApiStatus.Internal
     default void spawnInteractionEntity(Location location, Player player) {
         WrapperPlayServerSpawnEntity packet = new WrapperPlayServerSpawnEntity(
                 getInteractionEntityID(),
-                UUID.randomUUID(),
+                getInteractionEntityUUID(),
                 EntityTypes.INTERACTION,
                 SpigotConversionUtil.fromBukkitLocation(location),
                 location.getYaw(),
@@ -30,6 +43,15 @@ public interface Interaction {
         PacketEvents.getAPI().getPlayerManager().sendPacket(player, packet);
     }
 
+    @ApiStatus.Internal
+    default void sendInteractionSize(Player player, float width, float height) {
+        List<EntityData<?>> entityData = new ArrayList<>();
+        entityData.add(new EntityData<>(8, EntityDataTypes.FLOAT, width));
+        entityData.add(new EntityData<>(9, EntityDataTypes.FLOAT, height));
+        WrapperPlayServerEntityMetadata packet = new WrapperPlayServerEntityMetadata(getInteractionEntityID(), entityData);
+        PacketEvents.getAPI().getPlayerManager().sendPacket(player, packet);
+    }
+
     default void destroyInteractionEntity(Player player) {
         WrapperPlayServerDestroyEntities packet = new WrapperPlayServerDestroyEntities(getInteractionEntityID());
         PacketEvents.getAPI().getPlayerManager().sendPacket(player, packet);
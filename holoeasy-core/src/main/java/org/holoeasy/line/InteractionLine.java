@@ -6,9 +6,11 @@ import com.github.retrooper.packetevents.protocol.entity.data.EntityDataTypes;
 import com.github.retrooper.packetevents.protocol.entity.type.EntityTypes;
 import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerEntityMetadata;
 import org.bukkit.entity.Player;
+import org.holoeasy.event.InteractHandler;
 import org.holoeasy.hologram.Hologram;
 import org.holoeasy.util.VersionUtil;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -19,6 +21,7 @@ public class InteractionLine extends Line<Object> {
 
     private float width = 1.0f;
     private float height = 1.0f;
+    private volatile InteractHandler interactHandler;
 
     public InteractionLine(Hologram hologram) {
         super(hologram, EntityTypes.INTERACTION, player -> VALUE);
@@ -29,6 +32,14 @@ public class InteractionLine extends Line<Object> {
         return Type.INTERACTION_LINE;
     }
 
+    /**
+     * Interaction lines are invisible hitboxes placed over other lines, so they take no space in the layout.
+     */
+    @Override
+    public double getHeight() {
+        return 0;
+    }
+
     @Override
     public void show(@NotNull Player player) {
         spawn(player);
@@ -69,6 +80,17 @@ public class InteractionLine extends Line<Object> {
         PacketEvents.getAPI().getPlayerManager().sendPacket(player, packet);
     }
 
+    @Override
+    public void copyStyle(@NotNull Line<?> prototype) {
+        super.copyStyle(prototype);
+        if (prototype instanceof InteractionLine) {
+            InteractionLine other = (InteractionLine) prototype;
+            this.width = other.width;
+            this.height = other.height;
+            this.interactHandler = other.interactHandler;
+        }
+    }
+
     // Builder
 
     public InteractionLine yOffset(double yOffset) {
@@ -86,5 +108,18 @@ public class InteractionLine extends Line<Object> {
         return this;
     }
 
+    /**
+     * Call the handler when a player clicks this line.
+     * It runs on the executor set with {@link org.holoeasy.HoloEasy#setInteractExecutor}.
+     */
+    public InteractionLine onInteract(@Nullable InteractHandler handler) {
+        this.interactHandler = handler;
+        return this;
+    }
+
+    public @Nullable InteractHandler getInteractHandler() {
+        return interactHandler;
+    }
+
 
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package org.holoeasy.line;
+
+import org.holoeasy.util.FastUUID;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.UUID;
+import java.util.WeakHashMap;
+
+/**
+ * UUIDs of the interaction entities of {@link Interaction} implementations that don't keep their own.
+ */
+final class InteractionUUIDs {
+
+    // weak so discarded implementations are dropped
+    private static final Map<Interaction, UUID> uuids = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private InteractionUUIDs() {
+    }
+
+    static UUID get(Interaction interaction) {
+        return uuids.computeIfAbsent(interaction, i -> FastUUID.randomUUID());
+    }
+}
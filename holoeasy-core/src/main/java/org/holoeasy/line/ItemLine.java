@@ -7,10 +7,10 @@ import com.github.retrooper.packetevents.protocol.entity.type.EntityTypes;
 import com.github.retrooper.packetevents.util.Vector3d;
 import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerEntityMetadata;
 import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerEntityVelocity;
-import io.github.retrooper.packetevents.util.SpigotConversionUtil;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 import org.holoeasy.hologram.Hologram;
+import org.holoeasy.util.ConversionCache;
 import org.holoeasy.util.VersionEnum;
 import org.holoeasy.util.VersionUtil;
 import org.jetbrains.annotations.NotNull;
@@ -33,6 +33,11 @@ public class ItemLine extends Line<ItemStack> {
         return Type.ITEM_LINE;
     }
 
+    @Override
+    public double getHeight() {
+        return 0.6;
+    }
+
     @Override
     public void show(@NotNull Player player) {
         spawn(player);
@@ -51,7 +56,7 @@ public class ItemLine extends Line<ItemStack> {
     public void update(@NotNull Player player) {
         List<EntityData<?>> entityData = new ArrayList<>();
 
-        com.github.retrooper.packetevents.protocol.item.ItemStack item = SpigotConversionUtil.fromBukkitItemStack(getValue(player));
+        com.github.retrooper.packetevents.protocol.item.ItemStack item = ConversionCache.item(getValue(player));
 
         switch (VersionUtil.CLEAN_VERSION) {
             case V1_8:
@@ -89,4 +94,9 @@ public class ItemLine extends Line<ItemStack> {
         super.setYOffset(yOffset);
         return this;
     }
+
+    public ItemLine refreshEvery(int ticks) {
+        super.setRefreshInterval(ticks);
+        return this;
+    }
 }
\ No newline at end of file
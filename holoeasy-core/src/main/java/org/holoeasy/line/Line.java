@@ -5,45 +5,73 @@ import com.github.retrooper.packetevents.protocol.entity.type.EntityType;
 import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerDestroyEntities;
 import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerEntityTeleport;
 import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerSpawnEntity;
-import io.github.retrooper.packetevents.util.SpigotConversionUtil;
 import org.bukkit.Location;
 import org.bukkit.entity.Player;
-import org.bukkit.scheduler.BukkitTask;
-import org.holoeasy.animation.Animations;
+import org.holoeasy.animation.Animation;
+import org.holoeasy.animation.AnimationEngine;
+import org.holoeasy.animation.LevelOfDetail;
 import org.holoeasy.hologram.Hologram;
+import org.holoeasy.metrics.HoloMetrics;
+import org.holoeasy.util.EntityIdAllocator;
+import org.holoeasy.util.FastUUID;
+import org.holoeasy.util.TimingWheel;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.Random;
 import java.util.UUID;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 
 public abstract class Line<T> {
-    protected static final AtomicInteger IDs_COUNTER = new AtomicInteger(500 + new Random().nextInt());
-
+    private static final int[] NO_RIDERS = new int[0];
     protected final Hologram hologram;
     protected final EntityType entityType;
     protected final Function<Player, T> valueFunction;
     protected final int entityID;
+    protected final UUID entityUUID;
 
     protected double yOffset = 0;
 
-    private Location location;
-    private BukkitTask animationTask;
+    // Position as primitives, so layout and teleports don't allocate a Location per line
+    private double x;
+    private double y;
+    private double z;
+    private float yaw;
+    private volatile boolean positioned = false;
+
+    // Set by the layout when the line rides its hologram's rig, see Hologram#rig()
+    protected volatile boolean riding = false;
+    protected volatile float rigOffset = 0;
+
+    private final AtomicBoolean dirty = new AtomicBoolean(false);
+    private final AtomicBoolean released = new AtomicBoolean(false);
+    private int refreshInterval = 0;
+    private TimingWheel.Handle refreshHandle;
+    private final AtomicReference<AnimationEngine.ActiveAnimation> activeAnimation = new AtomicReference<>();
 
     public Line(Hologram hologram, EntityType entityType, Function<Player, T> valueFunction) {
         this.hologram = hologram;
         this.entityType = entityType;
         this.valueFunction = valueFunction;
-        this.entityID = IDs_COUNTER.getAndIncrement();
+        this.entityID = EntityIdAllocator.allocate();
+        this.entityUUID = FastUUID.randomUUID();
     }
 
     public abstract @NotNull Type getType();
 
     public @NotNull T getValue(@NotNull Player player) {
-        return valueFunction.apply(player);
+        HoloMetrics metrics = hologram.getLib().getMetrics();
+        if (!metrics.isEnabled()) {
+            return valueFunction.apply(player);
+        }
+        long start = System.nanoTime();
+        try {
+            return valueFunction.apply(player);
+        } finally {
+            metrics.recordValueFunction(System.nanoTime() - start);
+        }
     }
 
     public abstract void show(@NotNull Player player);
@@ -58,24 +86,232 @@ public abstract class Line<T> {
         }
     }
 
+    /**
+     * Schedule an {@link #updateAll()} on the next tick. Repeated calls within the same tick
+     * result in a single update.
+     */
+    public void markDirty() {
+        if (dirty.compareAndSet(false, true)) {
+            hologram.getLib().markDirty(this);
+        }
+    }
+
+    @ApiStatus.Internal
+    public void flushDirty() {
+        if (dirty.compareAndSet(true, false)) {
+            updateAll();
+        }
+    }
+
+    public int getRefreshInterval() {
+        return refreshInterval;
+    }
+
+    /**
+     * Set how often this line is refreshed for its viewers, 0 disables auto-refresh.
+     * Takes effect immediately if the hologram is visible.
+     */
+    protected void setRefreshInterval(int ticks) {
+        if (ticks < 0) {
+            throw new IllegalArgumentException("Refresh interval cannot be negative");
+        }
+        synchronized (this) {
+            this.refreshInterval = ticks;
+            stopRefresh();
+            if (!released.get() && !hologram.getPvt().getSeeingPlayers().isEmpty()) {
+                startRefresh();
+            }
+        }
+    }
+
+    /**
+     * Start auto-refresh, called when the hologram gains viewers.
+     */
+    @ApiStatus.Internal
+    public synchronized void startRefresh() {
+        if (refreshInterval > 0 && refreshHandle == null) {
+            refreshHandle = hologram.getLib().scheduleRefresh(refreshInterval, this::refresh);
+        }
+    }
+
+    /**
+     * Stop auto-refresh, called when the hologram loses its last viewer.
+     */
+    @ApiStatus.Internal
+    public synchronized void stopRefresh() {
+        if (refreshHandle != null) {
+            refreshHandle.cancel();
+            refreshHandle = null;
+        }
+    }
+
+    private void refresh() {
+        if (hologram.getPvt().getSeeingPlayers().isEmpty()) {
+            // viewers can leave without a hide (e.g. quit)
+            stopRefresh();
+            return;
+        }
+        updateAll();
+    }
+
+    /**
+     * Get the current location of this line, or null if the hologram hasn't been laid out yet.
+     * A new Location is created on every call, prefer {@link #getX()}, {@link #getY()} and {@link #getZ()}.
+     */
     public @Nullable Location getLocation() {
-        return location;
+        if (!positioned) {
+            return null;
+        }
+        return new Location(hologram.getLocation().getWorld(), x, y, z, yaw, 0);
     }
 
     public void setCurrentLocation(@NotNull Location value) {
-        this.location = value;
+        setPosition(value.getX(), value.getY(), value.getZ(), value.getYaw());
     }
 
-    public void setAnimation(Animations animation) {
-        cancelAnimation();
-        animationTask = animation.getTask().apply(this);
+    /**
+     * Move this line, called by the hologram layout.
+     *
+     * @return true if the position changed
+     */
+    @ApiStatus.Internal
+    public boolean setPosition(double x, double y, double z, float yaw) {
+        if (positioned && this.x == x && this.y == y && this.z == z && this.yaw == yaw) {
+            return false;
+        }
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.yaw = yaw;
+        this.positioned = true;
+        return true;
     }
 
-    public void cancelAnimation() {
-        if (animationTask != null) {
-            animationTask.cancel();
-            animationTask = null;
+    public boolean isPositioned() {
+        return positioned;
+    }
+
+    public double getX() {
+        return x;
+    }
+
+    public double getY() {
+        return y;
+    }
+
+    public double getZ() {
+        return z;
+    }
+
+    public float getYaw() {
+        return yaw;
+    }
+
+    /**
+     * Copy the static configuration (offsets, refresh interval, styling) of a line of the same type,
+     * used to create lines from a {@link org.holoeasy.hologram.HologramTemplate}.
+     * Immutable style values are shared rather than copied.
+     */
+    @ApiStatus.Internal
+    public void copyStyle(@NotNull Line<?> prototype) {
+        this.yOffset = prototype.yOffset;
+        if (prototype.refreshInterval > 0) {
+            setRefreshInterval(prototype.refreshInterval);
+        }
+    }
+
+    /**
+     * Pre-build whatever can be derived from the static configuration, so lines copying it
+     * with {@link #copyStyle(Line)} share the result.
+     */
+    @ApiStatus.Internal
+    public void prepareStyle() {
+    }
+
+    /**
+     * Get the IDs of the entities that can ride the hologram's rig root. Only display entities can,
+     * as their vertical offset is applied through translation; other lines are teleported individually.
+     */
+    @ApiStatus.Internal
+    public int @NotNull [] getRiderIds() {
+        return NO_RIDERS;
+    }
+
+    /**
+     * Set whether this line rides the rig root, and its vertical offset from it.
+     *
+     * @return true if anything changed
+     */
+    @ApiStatus.Internal
+    public boolean setRigOffset(boolean riding, float rigOffset) {
+        if (this.riding == riding && this.rigOffset == rigOffset) {
+            return false;
         }
+        this.rigOffset = rigOffset;
+        this.riding = riding;
+        return true;
+    }
+
+    public boolean isRiding() {
+        return riding;
+    }
+
+    /**
+     * Move the entities of this line that don't ride the rig root, after the root was teleported.
+     */
+    @ApiStatus.Internal
+    public void teleportUnrigged(@NotNull Player player) {
+    }
+
+    /**
+     * Get the vertical space this line takes when the hologram stacks its lines.
+     */
+    public double getHeight() {
+        return 0.3;
+    }
+
+    /**
+     * Get the vertical shift of the entity from its layout position. Lines rendering upwards from their
+     * anchor over several rows return a negative shift, so they stay within {@link #getHeight()} below it.
+     */
+    public double getAnchorOffset() {
+        return 0;
+    }
+
+    public void setAnimation(@NotNull Animation animation) {
+        hologram.getLib().getAnimationEngine().play(this, animation);
+    }
+
+    /**
+     * Start an animation whose frame rate drops for distant viewers.
+     */
+    public void setAnimation(@NotNull Animation animation, @NotNull LevelOfDetail levelOfDetail) {
+        hologram.getLib().getAnimationEngine().play(this, animation, levelOfDetail);
+    }
+
+    public void cancelAnimation() {
+        hologram.getLib().getAnimationEngine().stop(this);
+    }
+
+    @ApiStatus.Internal
+    public @Nullable AnimationEngine.ActiveAnimation getActiveAnimation() {
+        return activeAnimation.get();
+    }
+
+    /**
+     * @return the previous animation
+     */
+    @ApiStatus.Internal
+    public @Nullable AnimationEngine.ActiveAnimation swapActiveAnimation(@Nullable AnimationEngine.ActiveAnimation animation) {
+        return activeAnimation.getAndSet(animation);
+    }
+
+    /**
+     * Clear the animation, unless it was replaced meanwhile.
+     */
+    @ApiStatus.Internal
+    public void clearActiveAnimation(@NotNull AnimationEngine.ActiveAnimation animation) {
+        activeAnimation.compareAndSet(animation, null);
     }
 
     public double yOffset() {
@@ -84,31 +320,61 @@ public abstract class Line<T> {
 
     protected void setYOffset(double yOffset) {
         this.yOffset = yOffset;
+        invalidateLayout();
+    }
+
+    /**
+     * Recompute the position of this line (and the lines below it) on the next layout,
+     * after a change to its offset or height.
+     */
+    protected void invalidateLayout() {
+        hologram.getPvt().invalidateLayout(this);
     }
 
     public int getEntityID() {
         return entityID;
     }
 
+    public @NotNull UUID getEntityUUID() {
+        return entityUUID;
+    }
+
     public @NotNull Hologram getHologram() {
         return hologram;
     }
 
+    /**
+     * Whether the entity IDs of this line were released, the line can't be shown anymore.
+     */
+    public boolean isReleased() {
+        return released.get();
+    }
+
+    /**
+     * Return the entity IDs of this line to the allocator. The line must be hidden from every player
+     * and must not be shown again.
+     */
+    @ApiStatus.Internal
+    public void releaseIds() {
+        if (released.compareAndSet(false, true)) {
+            EntityIdAllocator.release(entityID);
+        }
+    }
+
     protected void destroy(Player player) {
         WrapperPlayServerDestroyEntities packet = new WrapperPlayServerDestroyEntities(entityID);
         PacketEvents.getAPI().getPlayerManager().sendPacket(player, packet);
     }
 
     protected boolean spawn(Player player) {
-        Location loc = location;
-        if (loc == null) return false;
+        if (!positioned) return false;
 
         WrapperPlayServerSpawnEntity packet = new WrapperPlayServerSpawnEntity(
                 entityID,
-                UUID.randomUUID(),
+                entityUUID,
                 entityType,
-                SpigotConversionUtil.fromBukkitLocation(location),
-                location.getYaw(),
+                packetLocation(),
+                yaw,
                 0,
                 null
         );
@@ -122,17 +388,20 @@ public abstract class Line<T> {
      * Subclasses with multiple entities should override this method.
      */
     public void teleport(@NotNull Player player) {
-        Location loc = location;
-        if (loc == null) return;
+        if (!positioned) return;
 
         WrapperPlayServerEntityTeleport packet = new WrapperPlayServerEntityTeleport(
                 entityID,
-                SpigotConversionUtil.fromBukkitLocation(loc),
+                packetLocation(),
                 false
         );
         PacketEvents.getAPI().getPlayerManager().sendPacket(player, packet);
     }
 
+    protected com.github.retrooper.packetevents.protocol.world.Location packetLocation() {
+        return new com.github.retrooper.packetevents.protocol.world.Location(x, y, z, yaw, 0);
+    }
+
 
 
     public enum Type {
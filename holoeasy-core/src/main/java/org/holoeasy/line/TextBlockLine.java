@@ -0,0 +1,139 @@
+package org.holoeasy.line;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
+import org.bukkit.entity.Player;
+import org.holoeasy.hologram.Hologram;
+import org.holoeasy.metrics.HoloMetrics;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+/**
+ * A block of text rows rendered by a single text display.
+ * <p>Each row keeps its own value function and its last value per player; on update the rows are joined
+ * with newlines into one component, rebuilt only when a row changed. A board of N rows costs one entity and
+ * one metadata packet per viewer instead of N.</p>
+ * <pre>{@code
+ * textBlock()
+ *     .row(Component.text("Top players"))
+ *     .row(player -> Component.text("1. " + top.get(0)))
+ *     .row(player -> Component.text("2. " + top.get(1)))
+ *     .shadow(true)
+ * }</pre>
+ */
+@ApiStatus.Experimental
+public class TextBlockLine extends DisplayTextLine {
+
+    private static final double ROW_HEIGHT = 0.3;
+
+    private final List<Function<Player, Component>> rows = new CopyOnWriteArrayList<>();
+    // weak, players leaving the server without a hide are dropped with their Player object
+    private final Map<Player, RowCache> cache = Collections.synchronizedMap(new WeakHashMap<>());
+
+    public TextBlockLine(Hologram hologram) {
+        super(hologram, player -> Component.empty());
+    }
+
+    @Override
+    public @NotNull Component getValue(@NotNull Player player) {
+        HoloMetrics metrics = hologram.getLib().getMetrics();
+        boolean timed = metrics.isEnabled();
+        long start = timed ? System.nanoTime() : 0;
+
+        RowCache rowCache = cache.computeIfAbsent(player, p -> new RowCache());
+        Component joined;
+        synchronized (rowCache) {
+            joined = rowCache.update(player, rows);
+        }
+
+        if (timed) {
+            metrics.recordValueFunction(System.nanoTime() - start);
+        }
+        return joined;
+    }
+
+    @Override
+    public void hide(@NotNull Player player) {
+        super.hide(player);
+        cache.remove(player);
+    }
+
+    @Override
+    public double getHeight() {
+        return ROW_HEIGHT * Math.max(rows.size(), 1) * scale.getY();
+    }
+
+    /**
+     * Text grows upwards from the anchor, so it is lowered by the extra rows: the first row sits where
+     * a single text line would, the others fill the height reserved below it.
+     */
+    @Override
+    public double getAnchorOffset() {
+        return -ROW_HEIGHT * (Math.max(rows.size(), 1) - 1) * scale.getY();
+    }
+
+    public int getRowCount() {
+        return rows.size();
+    }
+
+    /**
+     * Replace the value function of a row. Call {@link #markDirty()} or {@link #updateAll()}
+     * to show the change.
+     */
+    public TextBlockLine setRow(int index, @NotNull Function<Player, Component> row) {
+        rows.set(index, row);
+        return this;
+    }
+
+    // Builder
+
+    public TextBlockLine row(@NotNull Function<Player, Component> row) {
+        rows.add(row);
+        invalidateLayout();
+        return this;
+    }
+
+    public TextBlockLine row(@NotNull Component row) {
+        return row(player -> row);
+    }
+
+    private static final class RowCache {
+        Component[] values = new Component[0];
+        Component joined;
+
+        Component update(Player player, List<Function<Player, Component>> rows) {
+            Object[] functions = rows.toArray();
+            boolean changed = joined == null || values.length != functions.length;
+            if (values.length != functions.length) {
+                values = new Component[functions.length];
+            }
+            for (int i = 0; i < functions.length; i++) {
+                @SuppressWarnings("unchecked")
+                Component value = ((Function<Player, Component>) functions[i]).apply(player);
+                if (!Objects.equals(values[i], value)) {
+                    values[i] = value;
+                    changed = true;
+                }
+            }
+            if (changed) {
+                TextComponent.Builder builder = Component.text();
+                for (int i = 0; i < values.length; i++) {
+                    if (i > 0) {
+                        builder.append(Component.newline());
+                    }
+                    builder.append(values[i]);
+                }
+                joined = builder.build();
+            }
+            return joined;
+        }
+    }
+}
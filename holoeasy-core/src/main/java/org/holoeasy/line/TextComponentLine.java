@@ -71,4 +71,9 @@ public class TextComponentLine extends Line<Component> {
         super.setYOffset(yOffset);
         return this;
     }
+
+    public TextComponentLine refreshEvery(int ticks) {
+        super.setRefreshInterval(ticks);
+        return this;
+    }
 }
\ No newline at end of file
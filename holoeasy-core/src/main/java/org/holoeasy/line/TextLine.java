@@ -45,17 +45,19 @@ public class TextLine extends Line<String> {
     public void update(@NotNull Player player) {
         List<EntityData<?>> entityData = new ArrayList<>();
         VersionEnum version = VersionUtil.CLEAN_VERSION;
+        String text = getValue(player);
+        textSent(player, text);
 
         if (version == VersionEnum.V1_8) {
             entityData.add(new EntityData<>(0, EntityDataTypes.BYTE, (byte) 0x20));
 
-            entityData.add(new EntityData<>(2, EntityDataTypes.STRING, getValue(player)));
+            entityData.add(new EntityData<>(2, EntityDataTypes.STRING, text));
             entityData.add(new EntityData<>(3, EntityDataTypes.BYTE, (byte) 1));
         } else {
             entityData.add(new EntityData<>(0, EntityDataTypes.BYTE, (byte) 0x20));
 
             entityData.add(new EntityData<>(2, EntityDataTypes.OPTIONAL_ADV_COMPONENT,
-                    Optional.of(LegacyComponentSerializer.legacyAmpersand().deserialize(getValue(player)))));
+                    Optional.of(LegacyComponentSerializer.legacyAmpersand().deserialize(text))));
             entityData.add(new EntityData<>(3, EntityDataTypes.BOOLEAN, true));
         }
 
@@ -63,10 +65,21 @@ public class TextLine extends Line<String> {
         PacketEvents.getAPI().getPlayerManager().sendPacket(player, packet);
     }
 
+    /**
+     * Called with the text about to be sent to the player, before the metadata packet.
+     */
+    protected void textSent(@NotNull Player player, @NotNull String text) {
+    }
+
     // Builder
 
     public TextLine yOffset(double yOffset) {
         super.setYOffset(yOffset);
         return this;
     }
+
+    public TextLine refreshEvery(int ticks) {
+        super.setRefreshInterval(ticks);
+        return this;
+    }
 }
\ No newline at end of file
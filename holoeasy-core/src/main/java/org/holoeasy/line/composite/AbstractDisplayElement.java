@@ -4,31 +4,32 @@ import com.github.retrooper.packetevents.PacketEvents;
 import com.github.retrooper.packetevents.protocol.entity.data.EntityData;
 import com.github.retrooper.packetevents.protocol.entity.data.EntityDataTypes;
 import com.github.retrooper.packetevents.protocol.entity.type.EntityType;
+import com.github.retrooper.packetevents.protocol.entity.type.EntityTypes;
 import com.github.retrooper.packetevents.util.Quaternion4f;
 import com.github.retrooper.packetevents.util.Vector3f;
 import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerDestroyEntities;
 import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerEntityMetadata;
 import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerEntityTeleport;
 import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerSpawnEntity;
-import io.github.retrooper.packetevents.util.SpigotConversionUtil;
 import org.bukkit.Location;
 import org.bukkit.entity.Player;
+import org.holoeasy.event.InteractHandler;
+import org.holoeasy.line.Interaction;
+import org.holoeasy.util.EntityIdAllocator;
+import org.holoeasy.util.FastUUID;
+import org.holoeasy.util.MetadataFields;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
-import java.util.HashSet;
 import java.util.List;
-import java.util.Random;
-import java.util.Set;
 import java.util.UUID;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Abstract base class for display elements in a CompositeDisplayLine.
  * Provides common display entity properties and packet handling.
  */
-public abstract class AbstractDisplayElement<T, SELF extends AbstractDisplayElement<T, SELF>> implements CompositeElement {
-
-    protected static final AtomicInteger IDs_COUNTER = new AtomicInteger(10000 + new Random().nextInt(1000));
+public abstract class AbstractDisplayElement<T, SELF extends AbstractDisplayElement<T, SELF>> implements CompositeElement, Interaction {
 
     // Metadata indices for Display base entity (1.21.10+)
     protected static final int INDEX_INTERPOLATION_DELAY = 8;
@@ -47,14 +48,30 @@ public abstract class AbstractDisplayElement<T, SELF extends AbstractDisplayElem
     protected static final int INDEX_DISPLAY_HEIGHT = 21;
     protected static final int INDEX_GLOW_COLOR_OVERRIDE = 22;
 
-    protected final Set<Integer> modifiedFields = new HashSet<>();
+    protected final MetadataFields modifiedFields = new MetadataFields();
 
     protected final EntityType entityType;
     protected final int entityId;
+    protected final UUID entityUUID;
+    private final AtomicBoolean released = new AtomicBoolean(false);
 
     // Element width for positioning
     protected float width = 0.5f;
 
+    // Auto-refresh interval in ticks, 0 = disabled
+    protected int refreshInterval = 0;
+
+    // Clickable elements get an interaction entity as hitbox
+    protected volatile InteractHandler interactHandler;
+    protected int interactionEntityId = -1;
+    protected final UUID interactionUUID;
+    protected float hitboxWidth = -1f; // -1 = use element width
+    protected float hitboxHeight = 0.5f;
+
+    // Last offsets received from the composite line, used to place the hitbox
+    protected float offsetX;
+    protected float offsetY;
+
     // Display base properties
     protected int interpolationDelay = 0;
     protected int transformationInterpolationDuration = 0;
@@ -72,12 +89,18 @@ public abstract class AbstractDisplayElement<T, SELF extends AbstractDisplayElem
     protected float displayHeight = 0.0f;
     protected int glowColorOverride = -1;
 
-    // Location storage
-    protected Location spawnLocation;
+    // Position of the entity, written by the composite line, the same for every viewer
+    private double x;
+    private double y;
+    private double z;
+    private float yaw;
+    private volatile boolean positioned = false;
 
     protected AbstractDisplayElement(EntityType entityType) {
         this.entityType = entityType;
-        this.entityId = IDs_COUNTER.getAndIncrement();
+        this.entityId = EntityIdAllocator.allocate();
+        this.entityUUID = FastUUID.randomUUID();
+        this.interactionUUID = FastUUID.randomUUID();
     }
 
     @SuppressWarnings("unchecked")
@@ -95,6 +118,36 @@ public abstract class AbstractDisplayElement<T, SELF extends AbstractDisplayElem
         return entityId;
     }
 
+    @Override
+    public int getRefreshInterval() {
+        return refreshInterval;
+    }
+
+    @Override
+    public @Nullable InteractHandler getInteractHandler() {
+        return interactHandler;
+    }
+
+    @Override
+    public int getInteractionEntityID() {
+        return interactionEntityId;
+    }
+
+    @Override
+    public UUID getInteractionEntityUUID() {
+        return interactionUUID;
+    }
+
+    @Override
+    public void releaseIds() {
+        if (released.compareAndSet(false, true)) {
+            EntityIdAllocator.release(entityId);
+            if (interactionEntityId != -1) {
+                EntityIdAllocator.release(interactionEntityId);
+            }
+        }
+    }
+
     /**
      * Set the width this element occupies.
      */
@@ -103,17 +156,53 @@ public abstract class AbstractDisplayElement<T, SELF extends AbstractDisplayElem
         return self();
     }
 
+    /**
+     * Refresh this element every given number of ticks, independently of its line.
+     * Must be set before the element is shown.
+     */
+    public SELF refreshEvery(int ticks) {
+        if (ticks < 0) {
+            throw new IllegalArgumentException("Refresh interval cannot be negative");
+        }
+        this.refreshInterval = ticks;
+        return self();
+    }
+
+    /**
+     * Call the handler when a player clicks this element. Display entities can't be clicked,
+     * so an interaction entity is spawned as hitbox. Must be set before the element is shown.
+     * It runs on the executor set with {@link org.holoeasy.HoloEasy#setInteractExecutor}.
+     */
+    public synchronized SELF onInteract(@Nullable InteractHandler handler) {
+        this.interactHandler = handler;
+        if (handler != null && interactionEntityId == -1) {
+            interactionEntityId = EntityIdAllocator.allocate();
+        }
+        return self();
+    }
+
+    /**
+     * Set the hitbox size of a clickable element, by default the element width and half a block high.
+     */
+    public SELF hitbox(float width, float height) {
+        this.hitboxWidth = width;
+        this.hitboxHeight = height;
+        return self();
+    }
+
     @Override
     public void spawn(@NotNull Player player, float x, float y, float z) {
-        Location loc = spawnLocation;
-        if (loc == null) return;
+        if (!positioned) return;
+
+        this.offsetX = x;
+        this.offsetY = y;
 
         WrapperPlayServerSpawnEntity packet = new WrapperPlayServerSpawnEntity(
                 entityId,
-                UUID.randomUUID(),
+                entityUUID,
                 entityType,
-                SpigotConversionUtil.fromBukkitLocation(loc),
-                loc.getYaw(),
+                new com.github.retrooper.packetevents.protocol.world.Location(this.x, this.y, this.z, yaw, 0),
+                yaw,
                 0,
                 null
         );
@@ -121,30 +210,94 @@ public abstract class AbstractDisplayElement<T, SELF extends AbstractDisplayElem
 
         // Immediately update with metadata including translation
         update(player, x, y, z);
+
+        if (interactionEntityId != -1) {
+            WrapperPlayServerSpawnEntity hitbox = new WrapperPlayServerSpawnEntity(
+                    interactionEntityId,
+                    interactionUUID,
+                    EntityTypes.INTERACTION,
+                    hitboxLocation(),
+                    yaw,
+                    0,
+                    null
+            );
+            PacketEvents.getAPI().getPlayerManager().sendPacket(player, hitbox);
+            sendInteractionSize(player, hitboxWidth < 0 ? width : hitboxWidth, hitboxHeight);
+        }
     }
 
     @Override
     public void despawn(@NotNull Player player) {
         WrapperPlayServerDestroyEntities packet = new WrapperPlayServerDestroyEntities(entityId);
         PacketEvents.getAPI().getPlayerManager().sendPacket(player, packet);
+
+        if (interactionEntityId != -1) {
+            destroyInteractionEntity(player);
+        }
     }
 
     @Override
     public void teleport(@NotNull Player player, @NotNull Location location) {
-        this.spawnLocation = location;
+        teleport(player, location.getX(), location.getY(), location.getZ(), location.getYaw());
+    }
+
+    /**
+     * Move the element, without building a Location.
+     */
+    public void teleport(@NotNull Player player, double x, double y, double z, float yaw) {
+        setPosition(x, y, z, yaw);
         WrapperPlayServerEntityTeleport packet = new WrapperPlayServerEntityTeleport(
                 entityId,
-                SpigotConversionUtil.fromBukkitLocation(location),
+                new com.github.retrooper.packetevents.protocol.world.Location(x, y, z, yaw, 0),
                 false
         );
         PacketEvents.getAPI().getPlayerManager().sendPacket(player, packet);
+        sendHitboxTeleport(player);
+    }
+
+    /**
+     * Move only the hitbox, used when the display entity rides the hologram's rig.
+     */
+    public void teleportHitbox(@NotNull Player player, double x, double y, double z, float yaw) {
+        setPosition(x, y, z, yaw);
+        sendHitboxTeleport(player);
+    }
+
+    private void sendHitboxTeleport(Player player) {
+        if (interactionEntityId == -1) {
+            return;
+        }
+        WrapperPlayServerEntityTeleport packet = new WrapperPlayServerEntityTeleport(interactionEntityId, hitboxLocation(), false);
+        PacketEvents.getAPI().getPlayerManager().sendPacket(player, packet);
+    }
+
+    /**
+     * Where the hitbox goes, the same for every viewer. The horizontal offset is applied along the
+     * right-hand side of the element's yaw, so it matches what viewers in front of the hologram see.
+     */
+    protected com.github.retrooper.packetevents.protocol.world.Location hitboxLocation() {
+        double radians = Math.toRadians(yaw);
+        float horizontal = baseTranslation.getX() + offsetX;
+        return new com.github.retrooper.packetevents.protocol.world.Location(
+                x - Math.cos(radians) * horizontal,
+                y + baseTranslation.getY() + offsetY,
+                z - Math.sin(radians) * horizontal,
+                yaw, 0);
     }
 
     /**
      * Set spawn location (called by CompositeDisplayLine).
      */
-    public void setSpawnLocation(Location location) {
-        this.spawnLocation = location;
+    public void setSpawnLocation(@NotNull Location location) {
+        setPosition(location.getX(), location.getY(), location.getZ(), location.getYaw());
+    }
+
+    private void setPosition(double x, double y, double z, float yaw) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.yaw = yaw;
+        this.positioned = true;
     }
 
     /**
@@ -152,6 +305,10 @@ public abstract class AbstractDisplayElement<T, SELF extends AbstractDisplayElem
      * Translation is computed from base translation + offset.
      */
     protected void addDisplayBaseMetadata(List<EntityData<?>> entityData, float offsetX, float offsetY, float offsetZ) {
+        // keep the hitbox in line with the latest offsets
+        this.offsetX = offsetX;
+        this.offsetY = offsetY;
+
         // Translation is always sent (combines base + offset)
         Vector3f finalTranslation = new Vector3f(
                 baseTranslation.getX() + offsetX,
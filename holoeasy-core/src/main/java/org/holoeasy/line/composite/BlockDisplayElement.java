@@ -6,10 +6,10 @@ import com.github.retrooper.packetevents.protocol.entity.data.EntityDataTypes;
 import com.github.retrooper.packetevents.protocol.entity.type.EntityTypes;
 import com.github.retrooper.packetevents.protocol.world.states.WrappedBlockState;
 import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerEntityMetadata;
-import io.github.retrooper.packetevents.util.SpigotConversionUtil;
 import org.bukkit.Material;
 import org.bukkit.block.data.BlockData;
 import org.bukkit.entity.Player;
+import org.holoeasy.util.ConversionCache;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.ArrayList;
@@ -31,7 +31,7 @@ public class BlockDisplayElement extends AbstractDisplayElement<BlockData, Block
      * Create a BlockDisplay element with a static material.
      */
     public BlockDisplayElement(@NotNull Material material) {
-        this(player -> material.createBlockData());
+        this(material.createBlockData());
     }
 
     /**
@@ -52,7 +52,7 @@ public class BlockDisplayElement extends AbstractDisplayElement<BlockData, Block
     @Override
     public void update(@NotNull Player player, float x, float y, float z) {
         BlockData bukkitBlockData = blockSupplier.apply(player);
-        WrappedBlockState blockState = SpigotConversionUtil.fromBukkitBlockData(bukkitBlockData);
+        WrappedBlockState blockState = ConversionCache.blockState(bukkitBlockData);
 
         List<EntityData<?>> entityData = new ArrayList<>();
 
@@ -2,7 +2,10 @@ package org.holoeasy.line.composite;
 
 import com.github.retrooper.packetevents.protocol.entity.data.EntityData;
 import org.bukkit.entity.Player;
+import org.holoeasy.event.InteractHandler;
+import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.List;
 
@@ -54,6 +57,36 @@ public interface CompositeElement {
      */
     void teleport(@NotNull Player player, @NotNull org.bukkit.Location location);
 
+    /**
+     * Get how often this element is refreshed, in ticks.
+     * Returns 0 if the element is only updated together with its line.
+     */
+    default int getRefreshInterval() {
+        return 0;
+    }
+
+    /**
+     * Get the handler called when a player clicks this element, or null if it isn't clickable.
+     */
+    default @Nullable InteractHandler getInteractHandler() {
+        return null;
+    }
+
+    /**
+     * Get the entity ID of the hitbox spawned for clickable elements.
+     * Returns -1 if the element has no hitbox.
+     */
+    default int getInteractionEntityID() {
+        return -1;
+    }
+
+    /**
+     * Return the entity IDs of this element to the allocator, once it is destroyed for good.
+     */
+    @ApiStatus.Internal
+    default void releaseIds() {
+    }
+
     /**
      * Check if this element renders an entity (spacers don't).
      */
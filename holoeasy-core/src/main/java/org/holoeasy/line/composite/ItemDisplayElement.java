@@ -5,10 +5,10 @@ import com.github.retrooper.packetevents.protocol.entity.data.EntityData;
 import com.github.retrooper.packetevents.protocol.entity.data.EntityDataTypes;
 import com.github.retrooper.packetevents.protocol.entity.type.EntityTypes;
 import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerEntityMetadata;
-import io.github.retrooper.packetevents.util.SpigotConversionUtil;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 import org.holoeasy.line.DisplayItemLine;
+import org.holoeasy.util.ConversionCache;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.ArrayList;
@@ -46,7 +46,7 @@ public class ItemDisplayElement extends AbstractDisplayElement<ItemStack, ItemDi
     @Override
     public void update(@NotNull Player player, float x, float y, float z) {
         ItemStack bukkitItem = itemSupplier.apply(player);
-        com.github.retrooper.packetevents.protocol.item.ItemStack item = SpigotConversionUtil.fromBukkitItemStack(bukkitItem);
+        com.github.retrooper.packetevents.protocol.item.ItemStack item = ConversionCache.item(bukkitItem);
 
         List<EntityData<?>> entityData = new ArrayList<>();
 
@@ -0,0 +1,119 @@
+package org.holoeasy.metrics;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of non-negative values, e.g. durations in nanoseconds.
+ * <p>
+ * Values are counted in power-of-two buckets, so recording is a few atomic adds and percentiles are
+ * accurate to within a factor of two. Count, sum and max are exact.
+ */
+public final class Histogram {
+
+    private static final int BUCKETS = 64;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        buckets.incrementAndGet(bucket(value));
+        count.increment();
+        sum.add(value);
+
+        long current;
+        while (value > (current = max.get())) {
+            if (max.compareAndSet(current, value)) {
+                break;
+            }
+        }
+    }
+
+    public @NotNull Snapshot snapshot() {
+        long[] counts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets.get(i);
+        }
+        return new Snapshot(counts, count.sum(), sum.sum(), max.get());
+    }
+
+    // bucket i holds the values in [2^i, 2^(i+1)), bucket 0 also holds 0
+    private static int bucket(long value) {
+        return value == 0 ? 0 : 63 - Long.numberOfLeadingZeros(value);
+    }
+
+    public static final class Snapshot {
+        private final long[] buckets;
+        private final long count;
+        private final long sum;
+        private final long max;
+
+        Snapshot(long[] buckets, long count, long sum, long max) {
+            this.buckets = buckets;
+            this.count = count;
+            this.sum = sum;
+            this.max = max;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getSum() {
+            return sum;
+        }
+
+        public long getMax() {
+            return max;
+        }
+
+        public double getMean() {
+            return count == 0 ? 0 : (double) sum / count;
+        }
+
+        /**
+         * Estimate the value below which the given fraction of values fall, as the upper bound
+         * of its bucket.
+         *
+         * @param quantile between 0 and 1, e.g. 0.99
+         */
+        public long getPercentile(double quantile) {
+            if (quantile < 0 || quantile > 1) {
+                throw new IllegalArgumentException("Quantile must be between 0 and 1, got " + quantile);
+            }
+            // buckets are read one by one while recording continues, so they may not add up to count
+            long total = 0;
+            for (long bucket : buckets) {
+                total += bucket;
+            }
+            if (total == 0) {
+                return 0;
+            }
+
+            long rank = Math.max(1, (long) Math.ceil(quantile * total));
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += buckets[i];
+                if (seen >= rank) {
+                    long upper = i == BUCKETS - 1 ? Long.MAX_VALUE : (1L << (i + 1)) - 1;
+                    return Math.min(upper, max);
+                }
+            }
+            return max;
+        }
+
+        @Override
+        public String toString() {
+            return "count=" + count + ", mean=" + (long) getMean() + ", p50=" + getPercentile(0.5)
+                    + ", p99=" + getPercentile(0.99) + ", max=" + max;
+        }
+    }
+}
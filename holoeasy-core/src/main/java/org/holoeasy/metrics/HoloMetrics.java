@@ -0,0 +1,254 @@
+package org.holoeasy.metrics;
+
+import com.github.retrooper.packetevents.event.PacketSendEvent;
+import com.github.retrooper.packetevents.manager.server.ServerVersion;
+import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+import com.github.retrooper.packetevents.protocol.packettype.PacketTypeCommon;
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
+import org.holoeasy.util.EntityIdAllocator;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Performance metrics of a {@link org.holoeasy.HoloEasy} instance: pool ticks, packets sent for holograms,
+ * value function evaluation and interaction lookups.
+ * <p>
+ * Disabled by default, when disabled nothing is measured. Metrics are exported through registries:
+ * </p>
+ * <pre>{@code
+ * InMemoryMetricsRegistry memory = new InMemoryMetricsRegistry();
+ * lib.getMetrics()
+ *     .addRegistry(memory)
+ *     .addRegistry(new JmxMetricsRegistry(plugin.getName()))
+ *     .setEnabled(true);
+ * pool.getMetrics().setTickBudget(5, TimeUnit.MILLISECONDS);
+ * }</pre>
+ */
+public final class HoloMetrics {
+
+    private static final PacketTypeCommon[] HOLOGRAM_PACKETS = {
+            PacketType.Play.Server.SPAWN_ENTITY,
+            PacketType.Play.Server.DESTROY_ENTITIES,
+            PacketType.Play.Server.ENTITY_METADATA,
+            PacketType.Play.Server.ENTITY_TELEPORT,
+            PacketType.Play.Server.SET_PASSENGERS,
+            PacketType.Play.Server.ENTITY_EQUIPMENT,
+            PacketType.Play.Server.ENTITY_ROTATION,
+            PacketType.Play.Server.ENTITY_VELOCITY
+    };
+
+    private volatile boolean enabled = false;
+
+    private final List<PoolMetrics> pools = new CopyOnWriteArrayList<>();
+    private final Map<String, AtomicInteger> poolCounters = new ConcurrentHashMap<>();
+    private final Map<PacketTypeCommon, PacketCounter> packets; // never modified after construction
+    private final Histogram valueFunctionNanos = new Histogram();
+    private final Histogram interactionLookupNanos = new Histogram();
+    private final List<MetricsRegistry> registries = new CopyOnWriteArrayList<>();
+    // registries see every pool exactly once, whichever of addRegistry and createPool runs first
+    private final Object registryLock = new Object();
+
+    public HoloMetrics() {
+        Map<PacketTypeCommon, PacketCounter> packets = new LinkedHashMap<>();
+        for (PacketTypeCommon type : HOLOGRAM_PACKETS) {
+            packets.put(type, new PacketCounter());
+        }
+        this.packets = Collections.unmodifiableMap(packets);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public HoloMetrics setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        return this;
+    }
+
+    /**
+     * Export the metrics through the registry, until {@link #removeRegistry(MetricsRegistry)}.
+     */
+    public HoloMetrics addRegistry(@NotNull MetricsRegistry registry) {
+        synchronized (registryLock) {
+            if (registries.contains(registry)) {
+                return this;
+            }
+            registry.bind(this);
+            registries.add(registry);
+            for (PoolMetrics pool : pools) {
+                registry.poolAdded(pool);
+            }
+        }
+        return this;
+    }
+
+    public HoloMetrics removeRegistry(@NotNull MetricsRegistry registry) {
+        synchronized (registryLock) {
+            if (registries.remove(registry)) {
+                registry.close();
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Remove and close every registry, e.g. when the plugin is disabled.
+     */
+    public void closeRegistries() {
+        for (MetricsRegistry registry : registries) {
+            removeRegistry(registry);
+        }
+    }
+
+    // ==================== Pools ====================
+
+    /**
+     * Create the metrics of a new pool, named {@code kind} followed by a number unique for that kind.
+     */
+    @ApiStatus.Internal
+    public @NotNull PoolMetrics createPool(@NotNull String kind) {
+        int number = poolCounters.computeIfAbsent(kind, k -> new AtomicInteger()).incrementAndGet();
+        PoolMetrics pool = new PoolMetrics(this, kind + "-" + number);
+        synchronized (registryLock) {
+            pools.add(pool);
+            for (MetricsRegistry registry : registries) {
+                registry.poolAdded(pool);
+            }
+        }
+        return pool;
+    }
+
+    @ApiStatus.Internal
+    public void removePool(@NotNull PoolMetrics pool) {
+        synchronized (registryLock) {
+            if (pools.remove(pool)) {
+                for (MetricsRegistry registry : registries) {
+                    registry.poolRemoved(pool);
+                }
+            }
+        }
+    }
+
+    public @NotNull List<PoolMetrics> getPools() {
+        return Collections.unmodifiableList(pools);
+    }
+
+    void tickOverBudget(PoolMetrics pool, long nanos) {
+        for (MetricsRegistry registry : registries) {
+            registry.tickOverBudget(pool, nanos);
+        }
+    }
+
+    // ==================== Packets ====================
+
+    /**
+     * Count an outgoing packet if it is about a client-side entity. Called for every packet sent to players,
+     * only the entity ID is read.
+     */
+    @ApiStatus.Internal
+    public void recordPacket(@NotNull PacketSendEvent event) {
+        PacketTypeCommon type = event.getPacketType();
+        PacketCounter counter = packets.get(type);
+        if (counter == null) {
+            return;
+        }
+        Object buffer = event.getByteBuf();
+        int readerIndex = ByteBufHelper.readerIndex(buffer);
+        int size = ByteBufHelper.readableBytes(buffer);
+        try {
+            if (isAboutClientSideEntity(event, type)) {
+                counter.record(size);
+            }
+        } finally {
+            // the same listener may decode the packet afterwards
+            ByteBufHelper.readerIndex(buffer, readerIndex);
+        }
+    }
+
+    private static boolean isAboutClientSideEntity(PacketSendEvent event, PacketTypeCommon type) {
+        PacketWrapper<?> packet = new PacketWrapper<>(event, false);
+        if (type != PacketType.Play.Server.DESTROY_ENTITIES || packet.getServerVersion() == ServerVersion.V_1_17) {
+            // every other counted packet starts with the entity ID, and 1.17 destroys a single entity
+            return EntityIdAllocator.isClientSide(packet.readVarInt());
+        }
+        // a count followed by the IDs, a batch is counted when any of them is client-side
+        int count = packet.readVarInt();
+        for (int i = 0; i < count; i++) {
+            if (EntityIdAllocator.isClientSide(packet.readVarInt())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Count a set-passengers packet after HoloEasy handled it: the ones it completed with hologram riders,
+     * and the ones mounting the riders of a rig. The size is the one the passengers are encoded with.
+     */
+    @ApiStatus.Internal
+    public void recordPassengers(int vehicleId, int @NotNull [] passengers, boolean rewritten) {
+        if (!rewritten && !EntityIdAllocator.isClientSide(vehicleId)) {
+            return;
+        }
+        int size = varIntSize(vehicleId) + varIntSize(passengers.length);
+        for (int passenger : passengers) {
+            size += varIntSize(passenger);
+        }
+        packets.get(PacketType.Play.Server.SET_PASSENGERS).record(size);
+    }
+
+    private static int varIntSize(int value) {
+        int size = 1;
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    /**
+     * Packets sent for holograms by type.
+     */
+    public @NotNull Map<PacketTypeCommon, PacketCounter> getPackets() {
+        return packets;
+    }
+
+    // ==================== Timings ====================
+
+    @ApiStatus.Internal
+    public void recordValueFunction(long nanos) {
+        valueFunctionNanos.record(nanos);
+    }
+
+    @ApiStatus.Internal
+    public void recordInteractionLookup(long nanos) {
+        interactionLookupNanos.record(nanos);
+    }
+
+    /**
+     * Time spent evaluating the value function of a line for a player.
+     */
+    public @NotNull Histogram.Snapshot getValueFunctionNanos() {
+        return valueFunctionNanos.snapshot();
+    }
+
+    /**
+     * Time spent finding the line of a received interaction, by entity ID or by ray trace for clickable text.
+     */
+    public @NotNull Histogram.Snapshot getInteractionLookupNanos() {
+        return interactionLookupNanos.snapshot();
+    }
+
+    public @NotNull MetricsSnapshot snapshot() {
+        return new MetricsSnapshot(this);
+    }
+}
@@ -0,0 +1,53 @@
+package org.holoeasy.metrics;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.function.BiConsumer;
+
+/**
+ * Registry keeping the metrics in memory, for plugins that read them themselves, e.g. in a debug command
+ * or to alert on slow ticks.
+ * <pre>{@code
+ * InMemoryMetricsRegistry registry = new InMemoryMetricsRegistry()
+ *     .onTickOverBudget((pool, nanos) -> getLogger().warning(pool.getName() + " tick took " + nanos / 1_000_000 + " ms"));
+ * lib.getMetrics().addRegistry(registry).setEnabled(true);
+ * }</pre>
+ */
+public class InMemoryMetricsRegistry implements MetricsRegistry {
+
+    private volatile HoloMetrics metrics;
+    private volatile BiConsumer<PoolMetrics, Long> overBudgetHandler;
+
+    /**
+     * Call the handler for each pool tick over budget, from the pool's tick task.
+     */
+    public InMemoryMetricsRegistry onTickOverBudget(@Nullable BiConsumer<PoolMetrics, Long> handler) {
+        this.overBudgetHandler = handler;
+        return this;
+    }
+
+    @Override
+    public void bind(@NotNull HoloMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void tickOverBudget(@NotNull PoolMetrics pool, long nanos) {
+        BiConsumer<PoolMetrics, Long> handler = overBudgetHandler;
+        if (handler != null) {
+            handler.accept(pool, nanos);
+        }
+    }
+
+    /**
+     * @throws IllegalStateException if the registry wasn't added to a {@link HoloMetrics}
+     */
+    public @NotNull MetricsSnapshot snapshot() {
+        HoloMetrics metrics = this.metrics;
+        if (metrics == null) {
+            throw new IllegalStateException("Registry is not bound, add it with HoloMetrics#addRegistry first.");
+        }
+        return metrics.snapshot();
+    }
+}
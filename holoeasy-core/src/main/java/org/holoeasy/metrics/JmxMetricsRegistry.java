@@ -0,0 +1,322 @@
+package org.holoeasy.metrics;
+
+import com.github.retrooper.packetevents.protocol.packettype.PacketTypeCommon;
+import org.jetbrains.annotations.NotNull;
+
+import javax.management.JMException;
+import javax.management.MBeanNotificationInfo;
+import javax.management.MBeanServer;
+import javax.management.Notification;
+import javax.management.NotificationBroadcasterSupport;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Registry exposing the metrics as MXBeans on the platform MBean server, under
+ * {@code org.holoeasy:plugin=<name>,type=HoloEasy} and {@code org.holoeasy:plugin=<name>,type=Pool,name=<pool>}.
+ * <p>
+ * Pool beans emit a {@value #OVER_BUDGET_NOTIFICATION} notification for each tick over budget, with the tick
+ * duration in nanoseconds as user data, so JMX monitoring tools can alert on it.
+ */
+public class JmxMetricsRegistry implements MetricsRegistry {
+
+    public static final String DOMAIN = "org.holoeasy";
+    public static final String OVER_BUDGET_NOTIFICATION = "org.holoeasy.pool.tickOverBudget";
+
+    private final String plugin;
+    private final MBeanServer server;
+    private final Map<PoolMetrics, PoolBean> pools = new LinkedHashMap<>();
+    private ObjectName libName;
+
+    /**
+     * @param plugin name of the plugin, distinguishes the beans of each plugin shading HoloEasy
+     */
+    public JmxMetricsRegistry(@NotNull String plugin) {
+        this(plugin, ManagementFactory.getPlatformMBeanServer());
+    }
+
+    public JmxMetricsRegistry(@NotNull String plugin, @NotNull MBeanServer server) {
+        this.plugin = plugin;
+        this.server = server;
+    }
+
+    @Override
+    public synchronized void bind(@NotNull HoloMetrics metrics) {
+        libName = name("type=HoloEasy");
+        register(new LibBean(metrics), libName);
+    }
+
+    @Override
+    public synchronized void poolAdded(@NotNull PoolMetrics pool) {
+        PoolBean bean = new PoolBean(pool, name("type=Pool,name=" + ObjectName.quote(pool.getName())));
+        register(bean, bean.name);
+        pools.put(pool, bean);
+    }
+
+    @Override
+    public synchronized void poolRemoved(@NotNull PoolMetrics pool) {
+        PoolBean bean = pools.remove(pool);
+        if (bean != null) {
+            unregister(bean.name);
+        }
+    }
+
+    @Override
+    public void tickOverBudget(@NotNull PoolMetrics pool, long nanos) {
+        PoolBean bean;
+        synchronized (this) {
+            bean = pools.get(pool);
+        }
+        if (bean != null) {
+            bean.overBudget(nanos);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        for (PoolBean bean : pools.values()) {
+            unregister(bean.name);
+        }
+        pools.clear();
+        if (libName != null) {
+            unregister(libName);
+            libName = null;
+        }
+    }
+
+    private ObjectName name(String properties) {
+        try {
+            return new ObjectName(DOMAIN + ":plugin=" + ObjectName.quote(plugin) + "," + properties);
+        } catch (JMException e) {
+            throw new IllegalArgumentException("Invalid JMX name for plugin " + plugin, e);
+        }
+    }
+
+    private void register(Object bean, ObjectName name) {
+        try {
+            if (server.isRegistered(name)) {
+                // left over by a previous instance of the plugin, e.g. after a reload
+                server.unregisterMBean(name);
+            }
+            server.registerMBean(bean, name);
+        } catch (JMException e) {
+            throw new IllegalStateException("Cannot register " + name, e);
+        }
+    }
+
+    private void unregister(ObjectName name) {
+        try {
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+        } catch (JMException ignored) {
+            // already gone
+        }
+    }
+
+    // ==================== Beans ====================
+
+    public interface HoloEasyMetricsMXBean {
+        boolean isEnabled();
+
+        Map<String, Long> getPacketCounts();
+
+        Map<String, Long> getPacketBytes();
+
+        long getValueFunctionCount();
+
+        double getValueFunctionMeanNanos();
+
+        long getValueFunctionP99Nanos();
+
+        long getValueFunctionMaxNanos();
+
+        long getInteractionLookupCount();
+
+        double getInteractionLookupMeanNanos();
+
+        long getInteractionLookupP99Nanos();
+
+        long getInteractionLookupMaxNanos();
+    }
+
+    public interface PoolMetricsMXBean {
+        long getTickCount();
+
+        double getTickMeanNanos();
+
+        long getTickP50Nanos();
+
+        long getTickP99Nanos();
+
+        long getTickMaxNanos();
+
+        long getLastTickNanos();
+
+        long getTickBudgetNanos();
+
+        long getOverBudgetTicks();
+
+        double getEvaluatedPerTickMean();
+
+        long getEvaluatedPerTickMax();
+
+        long getShows();
+
+        long getHides();
+    }
+
+    private static final class LibBean implements HoloEasyMetricsMXBean {
+        private final HoloMetrics metrics;
+
+        LibBean(HoloMetrics metrics) {
+            this.metrics = metrics;
+        }
+
+        @Override
+        public boolean isEnabled() {
+            return metrics.isEnabled();
+        }
+
+        @Override
+        public Map<String, Long> getPacketCounts() {
+            Map<String, Long> counts = new LinkedHashMap<>();
+            for (Map.Entry<PacketTypeCommon, PacketCounter> entry : metrics.getPackets().entrySet()) {
+                counts.put(entry.getKey().getName(), entry.getValue().getCount());
+            }
+            return counts;
+        }
+
+        @Override
+        public Map<String, Long> getPacketBytes() {
+            Map<String, Long> bytes = new LinkedHashMap<>();
+            for (Map.Entry<PacketTypeCommon, PacketCounter> entry : metrics.getPackets().entrySet()) {
+                bytes.put(entry.getKey().getName(), entry.getValue().getBytes());
+            }
+            return bytes;
+        }
+
+        @Override
+        public long getValueFunctionCount() {
+            return metrics.getValueFunctionNanos().getCount();
+        }
+
+        @Override
+        public double getValueFunctionMeanNanos() {
+            return metrics.getValueFunctionNanos().getMean();
+        }
+
+        @Override
+        public long getValueFunctionP99Nanos() {
+            return metrics.getValueFunctionNanos().getPercentile(0.99);
+        }
+
+        @Override
+        public long getValueFunctionMaxNanos() {
+            return metrics.getValueFunctionNanos().getMax();
+        }
+
+        @Override
+        public long getInteractionLookupCount() {
+            return metrics.getInteractionLookupNanos().getCount();
+        }
+
+        @Override
+        public double getInteractionLookupMeanNanos() {
+            return metrics.getInteractionLookupNanos().getMean();
+        }
+
+        @Override
+        public long getInteractionLookupP99Nanos() {
+            return metrics.getInteractionLookupNanos().getPercentile(0.99);
+        }
+
+        @Override
+        public long getInteractionLookupMaxNanos() {
+            return metrics.getInteractionLookupNanos().getMax();
+        }
+    }
+
+    private static final class PoolBean extends NotificationBroadcasterSupport implements PoolMetricsMXBean {
+        private final PoolMetrics pool;
+        private final ObjectName name;
+        private final AtomicLong sequence = new AtomicLong();
+
+        PoolBean(PoolMetrics pool, ObjectName name) {
+            super(new MBeanNotificationInfo(new String[]{OVER_BUDGET_NOTIFICATION}, Notification.class.getName(),
+                    "A pool tick took longer than its budget"));
+            this.pool = pool;
+            this.name = name;
+        }
+
+        void overBudget(long nanos) {
+            Notification notification = new Notification(OVER_BUDGET_NOTIFICATION, name, sequence.incrementAndGet(),
+                    pool.getName() + " tick took " + nanos + " ns, budget " + pool.getTickBudgetNanos() + " ns");
+            notification.setUserData(nanos);
+            sendNotification(notification);
+        }
+
+        @Override
+        public long getTickCount() {
+            return pool.getTickNanos().getCount();
+        }
+
+        @Override
+        public double getTickMeanNanos() {
+            return pool.getTickNanos().getMean();
+        }
+
+        @Override
+        public long getTickP50Nanos() {
+            return pool.getTickNanos().getPercentile(0.5);
+        }
+
+        @Override
+        public long getTickP99Nanos() {
+            return pool.getTickNanos().getPercentile(0.99);
+        }
+
+        @Override
+        public long getTickMaxNanos() {
+            return pool.getTickNanos().getMax();
+        }
+
+        @Override
+        public long getLastTickNanos() {
+            return pool.getLastTickNanos();
+        }
+
+        @Override
+        public long getTickBudgetNanos() {
+            return pool.getTickBudgetNanos();
+        }
+
+        @Override
+        public long getOverBudgetTicks() {
+            return pool.getOverBudgetTicks();
+        }
+
+        @Override
+        public double getEvaluatedPerTickMean() {
+            return pool.getEvaluatedPerTick().getMean();
+        }
+
+        @Override
+        public long getEvaluatedPerTickMax() {
+            return pool.getEvaluatedPerTick().getMax();
+        }
+
+        @Override
+        public long getShows() {
+            return pool.getShows();
+        }
+
+        @Override
+        public long getHides() {
+            return pool.getHides();
+        }
+    }
+}
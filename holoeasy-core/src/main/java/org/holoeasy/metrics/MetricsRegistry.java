@@ -0,0 +1,35 @@
+package org.holoeasy.metrics;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Exports {@link HoloMetrics} to a monitoring system, see {@link HoloMetrics#addRegistry(MetricsRegistry)}.
+ * <p>
+ * Registries read the metrics when polled; the callbacks only report structural changes and tick budget
+ * overruns, they run on the thread that caused them and must not block.
+ */
+public interface MetricsRegistry {
+
+    /**
+     * Called once when the registry is added, before {@link #poolAdded(PoolMetrics)} for the existing pools.
+     */
+    void bind(@NotNull HoloMetrics metrics);
+
+    default void poolAdded(@NotNull PoolMetrics pool) {
+    }
+
+    default void poolRemoved(@NotNull PoolMetrics pool) {
+    }
+
+    /**
+     * A tick of the pool took longer than its {@link PoolMetrics#setTickBudget budget}. Called from the pool's tick task.
+     */
+    default void tickOverBudget(@NotNull PoolMetrics pool, long nanos) {
+    }
+
+    /**
+     * Called when the registry is removed.
+     */
+    default void close() {
+    }
+}
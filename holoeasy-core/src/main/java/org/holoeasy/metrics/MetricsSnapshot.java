@@ -0,0 +1,146 @@
+package org.holoeasy.metrics;
+
+import com.github.retrooper.packetevents.protocol.packettype.PacketTypeCommon;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Point-in-time copy of {@link HoloMetrics}. Counters are cumulative, compare two snapshots for rates.
+ */
+public final class MetricsSnapshot {
+
+    private final long timeMillis;
+    private final List<Pool> pools;
+    private final Map<String, Packets> packets;
+    private final Histogram.Snapshot valueFunctionNanos;
+    private final Histogram.Snapshot interactionLookupNanos;
+
+    MetricsSnapshot(HoloMetrics metrics) {
+        this.timeMillis = System.currentTimeMillis();
+
+        List<Pool> pools = new ArrayList<>();
+        for (PoolMetrics pool : metrics.getPools()) {
+            pools.add(new Pool(pool));
+        }
+        this.pools = Collections.unmodifiableList(pools);
+
+        Map<String, Packets> packets = new LinkedHashMap<>();
+        for (Map.Entry<PacketTypeCommon, PacketCounter> entry : metrics.getPackets().entrySet()) {
+            packets.put(entry.getKey().getName(), new Packets(entry.getValue().getCount(), entry.getValue().getBytes()));
+        }
+        this.packets = Collections.unmodifiableMap(packets);
+
+        this.valueFunctionNanos = metrics.getValueFunctionNanos();
+        this.interactionLookupNanos = metrics.getInteractionLookupNanos();
+    }
+
+    public long getTimeMillis() {
+        return timeMillis;
+    }
+
+    public @NotNull List<Pool> getPools() {
+        return pools;
+    }
+
+    public @Nullable Pool getPool(@NotNull String name) {
+        for (Pool pool : pools) {
+            if (pool.name.equals(name)) {
+                return pool;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Packets sent for holograms, by packet type name.
+     */
+    public @NotNull Map<String, Packets> getPackets() {
+        return packets;
+    }
+
+    public @NotNull Histogram.Snapshot getValueFunctionNanos() {
+        return valueFunctionNanos;
+    }
+
+    public @NotNull Histogram.Snapshot getInteractionLookupNanos() {
+        return interactionLookupNanos;
+    }
+
+    public static final class Pool {
+        private final String name;
+        private final Histogram.Snapshot tickNanos;
+        private final Histogram.Snapshot evaluatedPerTick;
+        private final long lastTickNanos;
+        private final long tickBudgetNanos;
+        private final long overBudgetTicks;
+        private final long shows;
+        private final long hides;
+
+        Pool(PoolMetrics pool) {
+            this.name = pool.getName();
+            this.tickNanos = pool.getTickNanos();
+            this.evaluatedPerTick = pool.getEvaluatedPerTick();
+            this.lastTickNanos = pool.getLastTickNanos();
+            this.tickBudgetNanos = pool.getTickBudgetNanos();
+            this.overBudgetTicks = pool.getOverBudgetTicks();
+            this.shows = pool.getShows();
+            this.hides = pool.getHides();
+        }
+
+        public @NotNull String getName() {
+            return name;
+        }
+
+        public @NotNull Histogram.Snapshot getTickNanos() {
+            return tickNanos;
+        }
+
+        public @NotNull Histogram.Snapshot getEvaluatedPerTick() {
+            return evaluatedPerTick;
+        }
+
+        public long getLastTickNanos() {
+            return lastTickNanos;
+        }
+
+        public long getTickBudgetNanos() {
+            return tickBudgetNanos;
+        }
+
+        public long getOverBudgetTicks() {
+            return overBudgetTicks;
+        }
+
+        public long getShows() {
+            return shows;
+        }
+
+        public long getHides() {
+            return hides;
+        }
+    }
+
+    public static final class Packets {
+        private final long count;
+        private final long bytes;
+
+        Packets(long count, long bytes) {
+            this.count = count;
+            this.bytes = bytes;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package org.holoeasy.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Packets of one type sent for holograms, see {@link HoloMetrics#getPackets()}.
+ */
+public final class PacketCounter {
+
+    private final LongAdder count = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+
+    void record(int size) {
+        count.increment();
+        bytes.add(size);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Payload bytes, without the packet ID and frame length. Compression isn't accounted for.
+     */
+    public long getBytes() {
+        return bytes.sum();
+    }
+}
@@ -0,0 +1,103 @@
+package org.holoeasy.metrics;
+
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics of a single hologram pool, created by {@link HoloMetrics#createPool(String)}.
+ */
+public final class PoolMetrics {
+
+    private final HoloMetrics parent;
+    private final String name;
+
+    private final Histogram tickNanos = new Histogram();
+    private final Histogram evaluatedPerTick = new Histogram();
+    private final LongAdder shows = new LongAdder();
+    private final LongAdder hides = new LongAdder();
+    private final LongAdder overBudget = new LongAdder();
+    private volatile long lastTickNanos = 0;
+    private volatile long tickBudgetNanos = 0;
+
+    PoolMetrics(HoloMetrics parent, String name) {
+        this.parent = parent;
+        this.name = name;
+    }
+
+    public @NotNull String getName() {
+        return name;
+    }
+
+    /**
+     * Count the ticks taking longer than {@code budget} and report them to the registries,
+     * see {@link MetricsRegistry#tickOverBudget(PoolMetrics, long)}. 0 disables the budget.
+     */
+    public PoolMetrics setTickBudget(long budget, @NotNull TimeUnit unit) {
+        if (budget < 0) {
+            throw new IllegalArgumentException("Tick budget cannot be negative");
+        }
+        this.tickBudgetNanos = unit.toNanos(budget);
+        return this;
+    }
+
+    public long getTickBudgetNanos() {
+        return tickBudgetNanos;
+    }
+
+    public boolean isEnabled() {
+        return parent.isEnabled();
+    }
+
+    /**
+     * @param evaluated the hologram and player pairs checked by the tick
+     */
+    @ApiStatus.Internal
+    public void recordTick(long nanos, int evaluated) {
+        tickNanos.record(nanos);
+        evaluatedPerTick.record(evaluated);
+        lastTickNanos = nanos;
+
+        long budget = tickBudgetNanos;
+        if (budget > 0 && nanos > budget) {
+            overBudget.increment();
+            parent.tickOverBudget(this, nanos);
+        }
+    }
+
+    @ApiStatus.Internal
+    public void recordShow() {
+        shows.increment();
+    }
+
+    @ApiStatus.Internal
+    public void recordHide() {
+        hides.increment();
+    }
+
+    public @NotNull Histogram.Snapshot getTickNanos() {
+        return tickNanos.snapshot();
+    }
+
+    public @NotNull Histogram.Snapshot getEvaluatedPerTick() {
+        return evaluatedPerTick.snapshot();
+    }
+
+    public long getLastTickNanos() {
+        return lastTickNanos;
+    }
+
+    public long getShows() {
+        return shows.sum();
+    }
+
+    public long getHides() {
+        return hides.sum();
+    }
+
+    public long getOverBudgetTicks() {
+        return overBudget.sum();
+    }
+}
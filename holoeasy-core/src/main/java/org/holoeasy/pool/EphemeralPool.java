@@ -0,0 +1,244 @@
+package org.holoeasy.pool;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.holoeasy.HoloEasy;
+import org.holoeasy.hologram.Hologram;
+import org.holoeasy.line.Line;
+import org.holoeasy.metrics.PoolMetrics;
+import org.holoeasy.util.TimingWheel;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool for short-lived text holograms such as damage numbers or pickup popups.
+ * <p>
+ * Holograms are shown once to the players near them when spawned and hidden again when their lifetime ends;
+ * unlike {@link HologramPool} there is no visibility tick. Expired holograms are kept with their lines and
+ * entity IDs and reused by the next {@link #spawn(Location, String, int)}, so a spawn allocates nothing once
+ * the pool is warm.
+ */
+public class EphemeralPool implements Listener, IHologramPool<Hologram> {
+
+    private static final int MAX_IDLE = 256;
+
+    private final HoloEasy lib;
+    private final double spawnDistance;
+
+    private final Set<Hologram> active = ConcurrentHashMap.newKeySet();
+    private final Queue<EphemeralHologram> idle = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger idleCount = new AtomicInteger();
+    private final PoolMetrics metrics;
+    private volatile boolean destroyed = false;
+
+    public EphemeralPool(@NotNull HoloEasy lib, double spawnDistance) {
+        this.lib = lib;
+        this.spawnDistance = spawnDistance;
+        this.metrics = lib.getMetrics().createPool("ephemeral-pool");
+        Bukkit.getPluginManager().registerEvents(this, lib.getPlugin());
+    }
+
+    /**
+     * Show a text hologram to the players within the spawn distance, and remove it after {@code lifetimeTicks}.
+     * Players who come closer later won't see it.
+     */
+    public void spawn(@NotNull Location location, @NotNull String text, int lifetimeTicks) {
+        if (lifetimeTicks <= 0) {
+            throw new IllegalArgumentException("Lifetime must be positive, got " + lifetimeTicks);
+        }
+        if (destroyed) {
+            throw new IllegalStateException("Pool has been destroyed");
+        }
+        World world = location.getWorld();
+        if (world == null) {
+            return;
+        }
+
+        EphemeralHologram hologram = idle.poll();
+        if (hologram != null) {
+            idleCount.decrementAndGet();
+        } else {
+            hologram = new EphemeralHologram(lib, location);
+        }
+        hologram.text = text;
+        hologram.teleport(location);
+        active.add(hologram);
+
+        double maxDistanceSquared = spawnDistance * spawnDistance;
+        for (Player player : world.getPlayers()) {
+            if (player.getLocation().distanceSquared(location) <= maxDistanceSquared) {
+                hologram.show(player);
+                if (metrics.isEnabled()) {
+                    metrics.recordShow();
+                }
+            }
+        }
+
+        EphemeralHologram spawned = hologram;
+        // runs on the lib's tick task and cancels itself, nothing is scheduled on Bukkit
+        hologram.expiry = lib.scheduleRefresh(lifetimeTicks, () -> expire(spawned));
+    }
+
+    private void expire(EphemeralHologram hologram) {
+        TimingWheel.Handle expiry = hologram.expiry;
+        if (expiry != null) {
+            expiry.cancel();
+        }
+        if (!active.remove(hologram)) {
+            return;
+        }
+        for (Player player : hologram.getPvt().getSeeingPlayers()) {
+            if (!player.isOnline()) {
+                // left between the quit event and now, nothing to send
+                hologram.getPvt().getSeeingPlayers().remove(player);
+                hologram.getPvt().removeViewerDistance(player);
+                continue;
+            }
+            hologram.hide(player);
+            if (metrics.isEnabled()) {
+                metrics.recordHide();
+            }
+        }
+
+        if (!destroyed && idleCount.incrementAndGet() <= MAX_IDLE) {
+            idle.add(hologram);
+        } else {
+            idleCount.decrementAndGet();
+            release(hologram);
+        }
+    }
+
+    private void release(EphemeralHologram hologram) {
+        for (Line<?> line : hologram.getLineArray()) {
+            line.releaseIds();
+        }
+    }
+
+    @Override
+    public boolean isInteractive() {
+        return false;
+    }
+
+    @Override
+    public @NotNull HoloEasy getLib() {
+        return lib;
+    }
+
+    /**
+     * Shows and hides of this pool. It has no visibility tick, so no tick durations are recorded.
+     */
+    @Override
+    public @NotNull PoolMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Get the holograms currently shown, as a read-only view. Use {@link #spawn(Location, String, int)}
+     * to add holograms and {@link #remove(UUID)} to remove one before its lifetime ends;
+     * {@link Hologram#show(IHologramPool)} and {@link Hologram#hide(IHologramPool)} are not supported.
+     */
+    @Override
+    public @NotNull Set<Hologram> getHolograms() {
+        return Collections.unmodifiableSet(active);
+    }
+
+    /**
+     * Not supported, holograms are only added by {@link #spawn(Location, String, int)}.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public boolean register(@NotNull Hologram hologram) {
+        throw new UnsupportedOperationException("Holograms can't be registered in an EphemeralPool, use EphemeralPool#spawn");
+    }
+
+    /**
+     * Not supported, holograms are only added by {@link #spawn(Location, String, int)}.
+     *
+     * @throws UnsupportedOperationException always
+     */
+    @Override
+    public void showAll(@NotNull Collection<? extends Hologram> holograms) {
+        throw new UnsupportedOperationException("Holograms can't be shown through an EphemeralPool, use EphemeralPool#spawn");
+    }
+
+    /**
+     * Hide a spawned hologram before its lifetime ends. Like on expiry it goes back to the pool
+     * for reuse, so the returned hologram must not be kept.
+     *
+     * @return the removed hologram, or null if no hologram with this ID is shown
+     */
+    @Override
+    public @Nullable Hologram remove(@NotNull UUID id) {
+        for (Hologram hologram : active) {
+            if (hologram.getId().equals(id)) {
+                expire((EphemeralHologram) hologram);
+                return hologram;
+            }
+        }
+        return null;
+    }
+
+    @EventHandler
+    public void handleWorldChange(PlayerChangedWorldEvent event) {
+        // the client dropped every entity, the hologram isn't shown again in the new world
+        Player player = event.getPlayer();
+        for (Hologram hologram : active) {
+            if (hologram.isShownFor(player)) {
+                hologram.hide(player);
+            }
+        }
+    }
+
+    @EventHandler
+    public void handleQuit(PlayerQuitEvent event) {
+        Player player = event.getPlayer();
+        for (Hologram hologram : active) {
+            if (hologram.isShownFor(player)) {
+                hologram.getPvt().getSeeingPlayers().remove(player);
+                hologram.getPvt().removeViewerDistance(player);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        destroyed = true;
+        HandlerList.unregisterAll(this);
+        for (Hologram hologram : active) {
+            expire((EphemeralHologram) hologram);
+        }
+        EphemeralHologram hologram;
+        while ((hologram = idle.poll()) != null) {
+            release(hologram);
+        }
+        idleCount.set(0);
+        lib.getMetrics().removePool(metrics);
+    }
+
+    private static final class EphemeralHologram extends Hologram {
+        volatile String text = "";
+        volatile TimingWheel.Handle expiry;
+
+        EphemeralHologram(HoloEasy lib, Location location) {
+            super(lib, location);
+            textLine(player -> text);
+        }
+    }
+}
@@ -6,6 +6,7 @@ import org.bukkit.Location;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.event.player.PlayerRespawnEvent;
 import org.bukkit.scheduler.BukkitTask;
@@ -13,9 +14,15 @@ import org.bukkit.util.RayTraceResult;
 import org.bukkit.util.Vector;
 import org.holoeasy.HoloEasy;
 import org.holoeasy.hologram.Hologram;
+import org.holoeasy.metrics.PoolMetrics;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 
 public class HologramPool<T extends Hologram> implements Listener, IHologramPool<T> {
@@ -26,8 +33,12 @@ public class HologramPool<T extends Hologram> implements Listener, IHologramPool
     private final boolean isInteractive;
     protected final boolean checkLineOfSight;
 
-    private final Set<T> holograms = ConcurrentHashMap.newKeySet();
+    private final Map<UUID, T> hologramsById = new ConcurrentHashMap<>();
+    private final Set<T> holograms = new HologramSet();
+    private final PoolMetrics metrics;
     private final BukkitTask tickTask;
+    private volatile @Nullable BukkitTask attachmentTask; // only runs while holograms are attached
+    private volatile boolean destroyed = false;
 
     public HologramPool(@NotNull HoloEasy lib, double spawnDistance, boolean isInteractive, boolean checkLineOfSight) {
         this.lib = lib;
@@ -35,6 +46,7 @@ public class HologramPool<T extends Hologram> implements Listener, IHologramPool
         this.isInteractive = isInteractive;
         this.checkLineOfSight = checkLineOfSight;
 
+        this.metrics = lib.getMetrics().createPool("pool");
         Bukkit.getPluginManager().registerEvents(this, lib.getPlugin());
         this.tickTask = hologramTick();
     }
@@ -54,15 +66,33 @@ public class HologramPool<T extends Hologram> implements Listener, IHologramPool
         return holograms;
     }
 
+    @Override
+    public @Nullable T getById(@NotNull UUID id) {
+        return hologramsById.get(id);
+    }
+
+    @Override
+    public boolean register(@NotNull T hologram) {
+        return hologramsById.putIfAbsent(hologram.getId(), hologram) == null;
+    }
+
+    @Override
+    public @NotNull PoolMetrics getMetrics() {
+        return metrics;
+    }
+
     @Override
     public void destroy() {
+        destroyed = true;
         if (!tickTask.isCancelled()) {
             tickTask.cancel();
         }
+        stopAttachmentTask();
         for (Hologram hologram : ImmutableList.copyOf(holograms)) {
             hologram.hide(this);
         }
         holograms.clear();
+        lib.getMetrics().removePool(metrics);
     }
 
     @EventHandler
@@ -75,20 +105,51 @@ public class HologramPool<T extends Hologram> implements Listener, IHologramPool
         }
     }
 
+    @EventHandler
+    public void handleWorldChange(PlayerChangedWorldEvent event) {
+        // the client dropped every entity, holograms still in range are shown and mounted again by the next tick
+        Player player = event.getPlayer();
+        for (T hologram : holograms) {
+            if (hologram.isShownFor(player)) {
+                hologram.hide(player);
+            }
+        }
+    }
+
     @EventHandler
     public void handleQuit(PlayerQuitEvent event) {
         Player player = event.getPlayer();
+        lib.getInteractionLimiter().forget(player);
+        lib.getHitTestIndex().forget(player);
         for (T hologram : holograms) {
             if (hologram.isShownFor(player)) {
                 hologram.getPvt().getSeeingPlayers().remove(player);
+                hologram.getPvt().removeViewerDistance(player);
             }
         }
     }
 
     private BukkitTask hologramTick() {
         return Bukkit.getScheduler().runTaskTimerAsynchronously(lib.getPlugin(), () -> {
+            boolean timed = metrics.isEnabled();
+            long start = timed ? System.nanoTime() : 0;
+            int evaluated = 0;
+
+            Set<Hologram> attached = lib.getAttachmentIndex().getAttachedHolograms();
+            if (!attached.isEmpty()) {
+                startAttachmentTask();
+                for (Hologram hologram : attached) {
+                    if (holograms.contains(hologram)) {
+                        hologram.followAttachment();
+                    }
+                }
+            }
             for (Player player : ImmutableList.copyOf(Bukkit.getOnlinePlayers())) {
+                if (isInteractive) {
+                    lib.getHitTestIndex().snapshotEye(player);
+                }
                 for (T hologram : holograms) {
+                    evaluated++;
                     Location holoLoc = hologram.getLocation();
                     Location playerLoc = player.getLocation();
                     boolean isShown = hologram.isShownFor(player);
@@ -96,14 +157,21 @@ public class HologramPool<T extends Hologram> implements Listener, IHologramPool
                     if (holoLoc.getWorld() != playerLoc.getWorld()) {
                         if (isShown) {
                             hologram.hide(player);
+                            if (timed) {
+                                metrics.recordHide();
+                            }
                         }
                         continue;
                     } else if (holoLoc.getWorld() != null &&
                             !holoLoc.getWorld().isChunkLoaded(holoLoc.getBlockX() >> 4, holoLoc.getBlockZ() >> 4) && isShown) {
                         hologram.hide(player);
+                        if (timed) {
+                            metrics.recordHide();
+                        }
                         continue;
                     }
-                    boolean inRange = holoLoc.distanceSquared(playerLoc) <= this.spawnDistance * this.spawnDistance;
+                    double distanceSquared = holoLoc.distanceSquared(playerLoc);
+                    boolean inRange = distanceSquared <= this.spawnDistance * this.spawnDistance;
 
                     boolean hasLineOfSight = true;
                     if (checkLineOfSight && inRange) {
@@ -114,14 +182,59 @@ public class HologramPool<T extends Hologram> implements Listener, IHologramPool
 
                     if (!shouldShow && isShown) {
                         hologram.hide(player);
+                        if (timed) {
+                            metrics.recordHide();
+                        }
                     } else if (shouldShow && !isShown) {
                         hologram.show(player);
+                        if (timed) {
+                            metrics.recordShow();
+                        }
+                    }
+
+                    if (shouldShow) {
+                        // reused by animation level of detail
+                        hologram.getPvt().setViewerDistanceSquared(player, distanceSquared);
                     }
                 }
             }
+
+            if (timed) {
+                metrics.recordTick(System.nanoTime() - start, evaluated);
+            }
         }, 20L, 2L);
     }
 
+    /**
+     * Entities can only be read on the main thread, their position is sampled there for the async tick.
+     * Started by the async tick once a hologram is attached, and stopped when none is left.
+     */
+    private synchronized void startAttachmentTask() {
+        if (attachmentTask != null || destroyed) {
+            return;
+        }
+        attachmentTask = Bukkit.getScheduler().runTaskTimer(lib.getPlugin(), () -> {
+            Set<Hologram> attached = lib.getAttachmentIndex().getAttachedHolograms();
+            if (attached.isEmpty()) {
+                stopAttachmentTask();
+                return;
+            }
+            for (Hologram hologram : attached) {
+                if (holograms.contains(hologram)) {
+                    hologram.sampleAttachment();
+                }
+            }
+        }, 0L, 2L);
+    }
+
+    private synchronized void stopAttachmentTask() {
+        BukkitTask task = attachmentTask;
+        if (task != null) {
+            task.cancel();
+            attachmentTask = null;
+        }
+    }
+
     /**
      * Check if player has direct line of sight to the hologram location
      */
@@ -140,4 +253,39 @@ public class HologramPool<T extends Hologram> implements Listener, IHologramPool
 
         return result == null || result.getHitBlock() == null;
     }
-}
\ No newline at end of file
+
+    /**
+     * Set view of the holograms keyed by ID, so contains, add and remove don't depend on the set size.
+     */
+    private final class HologramSet extends AbstractSet<T> {
+        @Override
+        public @NotNull Iterator<T> iterator() {
+            return hologramsById.values().iterator();
+        }
+
+        @Override
+        public int size() {
+            return hologramsById.size();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof Hologram && hologramsById.get(((Hologram) o).getId()) == o;
+        }
+
+        @Override
+        public boolean add(T hologram) {
+            return register(hologram);
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            return o instanceof Hologram && hologramsById.remove(((Hologram) o).getId(), o);
+        }
+
+        @Override
+        public void clear() {
+            hologramsById.clear();
+        }
+    }
+}
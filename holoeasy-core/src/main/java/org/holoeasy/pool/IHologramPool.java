@@ -2,10 +2,14 @@ package org.holoeasy.pool;
 
 import org.holoeasy.HoloEasy;
 import org.holoeasy.hologram.Hologram;
+import org.holoeasy.metrics.PoolMetrics;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.util.Collection;
 import java.util.Set;
+import java.util.UUID;
 
 public interface IHologramPool<T extends Hologram> {
 
@@ -15,6 +19,65 @@ public interface IHologramPool<T extends Hologram> {
 
     @NotNull Set<T> getHolograms();
 
+    /**
+     * Get a hologram of this pool by its ID.
+     * The default implementation scans {@link #getHolograms()}, pools should override it with a keyed lookup.
+     */
+    default @Nullable T getById(@NotNull UUID id) {
+        for (T hologram : getHolograms()) {
+            if (hologram.getId().equals(id)) {
+                return hologram;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Add the hologram unless one with the same ID is already registered, as a single atomic step.
+     * Use {@link Hologram#show(IHologramPool)} to register and index a hologram.
+     *
+     * @return true if the hologram was added
+     */
+    @ApiStatus.Internal
+    default boolean register(@NotNull T hologram) {
+        // holograms are equal by ID, so a concurrent set already behaves like putIfAbsent
+        return getHolograms().add(hologram);
+    }
+
+    /**
+     * Remove a hologram from this pool by its ID.
+     *
+     * @return the removed hologram, or null if there was none
+     */
+    default @Nullable T remove(@NotNull UUID id) {
+        T hologram = getById(id);
+        if (hologram == null) {
+            return null;
+        }
+        hologram.hide(this);
+        return hologram;
+    }
+
+    /**
+     * Show all holograms in this pool, e.g. when loading them at startup.
+     *
+     * @throws KeyAlreadyExistsException if one of them is already registered, holograms before it stay shown
+     */
+    default void showAll(@NotNull Collection<? extends T> holograms) {
+        for (T hologram : holograms) {
+            hologram.show(this);
+        }
+    }
+
+    /**
+     * Get the performance metrics of this pool, recorded while {@link HoloEasy#getMetrics()} is enabled.
+     *
+     * @return null if the pool doesn't record metrics
+     */
+    default @Nullable PoolMetrics getMetrics() {
+        return null;
+    }
+
     @ApiStatus.Experimental
     void destroy();
-}
\ No newline at end of file
+}
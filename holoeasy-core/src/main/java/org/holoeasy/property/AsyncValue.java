@@ -0,0 +1,202 @@
+package org.holoeasy.property;
+
+import org.bukkit.entity.Player;
+import org.holoeasy.line.Line;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.ref.WeakReference;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * A line value backed by an asynchronous loader, with stale-while-revalidate caching.
+ * <p>{@link #apply(Player)} never blocks: it returns the last known value (or the placeholder
+ * before the first load completes) and starts a background fetch once the cached value is older
+ * than the TTL. When a fetch completes with a different value, the bound lines are updated.
+ * Like {@link Property}, bindings don't keep lines alive.</p>
+ * <p>Entries not read for a while, e.g. of players who left, are swept out during reads.</p>
+ * <pre>{@code
+ * AsyncValue<String> balance = AsyncValue.of(player -> economy.fetchBalance(player), "Loading...", 30, TimeUnit.SECONDS);
+ * TextLine line = balance.bind(textLine(balance));
+ * }</pre>
+ */
+public class AsyncValue<T> implements Function<Player, T> {
+
+    private static final Logger log = LoggerFactory.getLogger(AsyncValue.class);
+    private static final UUID SHARED_KEY = new UUID(0L, 0L);
+    private static final long MIN_IDLE_NANOS = TimeUnit.MINUTES.toNanos(5);
+
+    private final Function<Player, CompletableFuture<T>> loader;
+    private final T placeholder;
+    private final long ttlNanos;
+    private final boolean shared;
+    private final Map<UUID, Entry<T>> cache = new ConcurrentHashMap<>();
+    // entries unread for this long are dropped, checked at most once per idle period
+    private final long idleNanos;
+    private final AtomicLong nextSweep;
+
+    private final List<WeakReference<Line<?>>> lines = new CopyOnWriteArrayList<>();
+
+    protected AsyncValue(@NotNull Function<Player, CompletableFuture<T>> loader, @NotNull T placeholder, long ttl, @NotNull TimeUnit unit, boolean shared) {
+        this.loader = loader;
+        this.placeholder = placeholder;
+        this.ttlNanos = unit.toNanos(ttl);
+        this.shared = shared;
+        this.idleNanos = Math.max(ttlNanos * 2, MIN_IDLE_NANOS);
+        this.nextSweep = new AtomicLong(System.nanoTime() + idleNanos);
+    }
+
+    /**
+     * Create a value cached separately for each player.
+     */
+    public static <T> @NotNull AsyncValue<T> of(@NotNull Function<Player, CompletableFuture<T>> loader, @NotNull T placeholder, long ttl, @NotNull TimeUnit unit) {
+        return new AsyncValue<>(loader, placeholder, ttl, unit, false);
+    }
+
+    /**
+     * Create a value cached once for all players, e.g. a global top list.
+     * The loader is called with whichever viewer triggered the refresh.
+     */
+    public static <T> @NotNull AsyncValue<T> shared(@NotNull Function<Player, CompletableFuture<T>> loader, @NotNull T placeholder, long ttl, @NotNull TimeUnit unit) {
+        return new AsyncValue<>(loader, placeholder, ttl, unit, true);
+    }
+
+    /**
+     * Push updates to this line when a fetch returns a new value. A value can be bound to several lines.
+     * @return the same line, for chaining in field initializers
+     */
+    public <L extends Line<?>> @NotNull L bind(@NotNull L line) {
+        synchronized (lines) {
+            for (WeakReference<Line<?>> bound : lines) {
+                if (bound.get() == line) {
+                    return line;
+                }
+            }
+            lines.add(new WeakReference<>(line));
+        }
+        return line;
+    }
+
+    public void unbind(@NotNull Line<?> line) {
+        lines.removeIf(bound -> bound.get() == line);
+    }
+
+    @Override
+    public @NotNull T apply(@NotNull Player player) {
+        UUID key = shared ? SHARED_KEY : player.getUniqueId();
+        Entry<T> entry = cache.computeIfAbsent(key, k -> new Entry<>());
+
+        long now = System.nanoTime();
+        entry.readAt = now;
+        if (!shared) {
+            sweep(now);
+        }
+        if (!entry.loading && (!entry.attempted || now - entry.loadedAt >= ttlNanos)) {
+            refresh(key, entry, player, now);
+        }
+
+        T value = entry.value;
+        return value != null ? value : placeholder;
+    }
+
+    /**
+     * Forget the cached value for a player, the next read shows the placeholder and reloads.
+     */
+    public void invalidate(@NotNull Player player) {
+        cache.remove(shared ? SHARED_KEY : player.getUniqueId());
+    }
+
+    public void invalidateAll() {
+        cache.clear();
+    }
+
+    private void sweep(long now) {
+        long next = nextSweep.get();
+        if (now - next < 0 || !nextSweep.compareAndSet(next, now + idleNanos)) {
+            return;
+        }
+        cache.values().removeIf(entry -> !entry.loading && now - entry.readAt >= idleNanos);
+    }
+
+    private void refresh(UUID key, Entry<T> entry, Player player, long now) {
+        synchronized (entry) {
+            if (entry.loading) {
+                return;
+            }
+            entry.loading = true;
+            entry.attempted = true;
+        }
+
+        CompletableFuture<T> future;
+        try {
+            future = loader.apply(player);
+        } catch (Throwable t) {
+            entry.loading = false;
+            entry.loadedAt = now;
+            log.warn("Async line value loader failed", t);
+            return;
+        }
+
+        future.whenComplete((result, error) -> {
+            entry.loadedAt = System.nanoTime();
+            entry.loading = false;
+
+            if (error != null) {
+                // keep serving the stale value until the next TTL expiry
+                log.warn("Async line value loader failed", error);
+                return;
+            }
+            if (result == null || Objects.equals(result, entry.value)) {
+                return;
+            }
+            entry.value = result;
+
+            if (!shared && !player.isOnline()) {
+                cache.remove(key, entry);
+                return;
+            }
+            pushUpdate(player);
+        });
+    }
+
+    private void pushUpdate(@NotNull Player player) {
+        boolean stale = false;
+        for (WeakReference<Line<?>> bound : lines) {
+            Line<?> target = bound.get();
+            if (target == null || target.isReleased()) {
+                stale = true;
+                continue;
+            }
+            if (shared) {
+                target.updateAll();
+            } else if (target.getHologram().isShownFor(player)) {
+                target.update(player);
+            }
+        }
+        if (stale) {
+            lines.removeIf(bound -> {
+                Line<?> target = bound.get();
+                return target == null || target.isReleased();
+            });
+        }
+    }
+
+    private static final class Entry<T> {
+        volatile @Nullable T value;
+        volatile long loadedAt;
+        volatile long readAt;
+        volatile boolean attempted;
+        volatile boolean loading;
+    }
+}
@@ -0,0 +1,105 @@
+package org.holoeasy.property;
+
+import org.holoeasy.line.Line;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.ref.WeakReference;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+/**
+ * An observable value that drives line updates.
+ * <p>Lines whose value function reads a property are bound to it; when the property
+ * changes to a different value, only those lines are marked dirty and refreshed on the next tick.
+ * Bindings don't keep lines alive: lines that are garbage collected, or whose entities were released
+ * when their hologram was destroyed, are dropped on the next change.</p>
+ * <pre>{@code
+ * Property<Integer> clicks = Property.of(0);
+ * DisplayTextLine line = clicks.bind(displayTextLine(player -> Component.text("Clicks: " + clicks.get())));
+ * clicks.update(c -> c + 1);
+ * }</pre>
+ */
+public class Property<T> {
+
+    private final AtomicReference<T> value;
+    private final List<WeakReference<Line<?>>> dependents = new CopyOnWriteArrayList<>();
+
+    public Property(T initialValue) {
+        this.value = new AtomicReference<>(initialValue);
+    }
+
+    public static <T> @NotNull Property<T> of(T initialValue) {
+        return new Property<>(initialValue);
+    }
+
+    public T get() {
+        return value.get();
+    }
+
+    /**
+     * Set a new value. Bound lines are only marked dirty if the value actually changed.
+     */
+    public void set(T newValue) {
+        T oldValue = value.getAndSet(newValue);
+        if (!Objects.equals(oldValue, newValue)) {
+            notifyDependents();
+        }
+    }
+
+    /**
+     * Atomically apply the function to the current value.
+     */
+    public void update(@NotNull UnaryOperator<T> function) {
+        T oldValue;
+        T newValue;
+        do {
+            oldValue = value.get();
+            newValue = function.apply(oldValue);
+        } while (!value.compareAndSet(oldValue, newValue));
+
+        if (!Objects.equals(oldValue, newValue)) {
+            notifyDependents();
+        }
+    }
+
+    /**
+     * Refresh the line whenever this property changes.
+     * @return the same line, for chaining in field initializers
+     */
+    public <L extends Line<?>> @NotNull L bind(@NotNull L line) {
+        synchronized (dependents) {
+            for (WeakReference<Line<?>> dependent : dependents) {
+                if (dependent.get() == line) {
+                    return line;
+                }
+            }
+            dependents.add(new WeakReference<>(line));
+        }
+        return line;
+    }
+
+    public void unbind(@NotNull Line<?> line) {
+        dependents.removeIf(dependent -> dependent.get() == line);
+    }
+
+    private void notifyDependents() {
+        boolean stale = false;
+        for (WeakReference<Line<?>> dependent : dependents) {
+            Line<?> line = dependent.get();
+            if (line == null || line.isReleased()) {
+                stale = true;
+                continue;
+            }
+            line.markDirty();
+        }
+        if (stale) {
+            dependents.removeIf(dependent -> {
+                Line<?> line = dependent.get();
+                return line == null || line.isReleased();
+            });
+        }
+    }
+}
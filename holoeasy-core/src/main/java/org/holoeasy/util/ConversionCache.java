@@ -0,0 +1,130 @@
+package org.holoeasy.util;
+
+import com.github.retrooper.packetevents.protocol.world.states.WrappedBlockState;
+import io.github.retrooper.packetevents.util.SpigotConversionUtil;
+import org.bukkit.Material;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caches the Bukkit to PacketEvents conversions used by item and block lines.
+ * <p>
+ * Item stacks are keyed by similarity (type, amount and meta, as in {@link ItemStack#equals(Object)}),
+ * block data by equality and materials by identity, so the same value shown to many players
+ * is only converted once. Items and block data are held in striped LRU maps, so threads converting
+ * different values rarely wait on each other.
+ */
+public final class ConversionCache {
+
+    private static final int MAX_ITEMS = 512;
+    private static final int MAX_BLOCK_DATA = 256;
+    private static final int STRIPES = 16;
+
+    private static final StripedLru<ItemStack, com.github.retrooper.packetevents.protocol.item.ItemStack> ITEMS = new StripedLru<>(MAX_ITEMS);
+    private static final StripedLru<BlockData, WrappedBlockState> BLOCK_DATA = new StripedLru<>(MAX_BLOCK_DATA);
+    // Bounded by the number of materials, no eviction needed
+    private static final Map<Material, WrappedBlockState> MATERIALS = new ConcurrentHashMap<>();
+
+    private ConversionCache() {
+    }
+
+    /**
+     * @param item null converts to the empty item, as {@link SpigotConversionUtil#fromBukkitItemStack} does
+     */
+    public static @NotNull com.github.retrooper.packetevents.protocol.item.ItemStack item(@Nullable ItemStack item) {
+        if (item == null) {
+            return SpigotConversionUtil.fromBukkitItemStack(null);
+        }
+        com.github.retrooper.packetevents.protocol.item.ItemStack converted = ITEMS.get(item);
+        if (converted == null) {
+            converted = SpigotConversionUtil.fromBukkitItemStack(item);
+            // the key is cloned, so later changes to the caller's stack can't corrupt the map
+            ITEMS.put(item.clone(), converted);
+        }
+        return converted;
+    }
+
+    public static @NotNull WrappedBlockState blockState(@NotNull Material material) {
+        return MATERIALS.computeIfAbsent(material, m -> SpigotConversionUtil.fromBukkitBlockData(m.createBlockData()));
+    }
+
+    public static @NotNull WrappedBlockState blockState(@NotNull BlockData blockData) {
+        WrappedBlockState converted = BLOCK_DATA.get(blockData);
+        if (converted == null) {
+            converted = SpigotConversionUtil.fromBukkitBlockData(blockData);
+            BLOCK_DATA.put(blockData.clone(), converted);
+        }
+        return converted;
+    }
+
+    /**
+     * Drop every cached conversion, e.g. after a resource reload changed item components.
+     */
+    public static void invalidateAll() {
+        ITEMS.clear();
+        BLOCK_DATA.clear();
+        MATERIALS.clear();
+    }
+
+    /**
+     * LRU map split by key hash, each stripe evicting on its own with its own lock.
+     */
+    private static final class StripedLru<K, V> {
+        private final LruMap<K, V>[] stripes;
+
+        @SuppressWarnings("unchecked")
+        StripedLru(int maxSize) {
+            stripes = new LruMap[STRIPES];
+            for (int i = 0; i < STRIPES; i++) {
+                stripes[i] = new LruMap<>(Math.max(1, maxSize / STRIPES));
+            }
+        }
+
+        private LruMap<K, V> stripe(Object key) {
+            int hash = key.hashCode();
+            return stripes[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+        }
+
+        V get(K key) {
+            LruMap<K, V> stripe = stripe(key);
+            synchronized (stripe) {
+                return stripe.get(key);
+            }
+        }
+
+        void put(K key, V value) {
+            LruMap<K, V> stripe = stripe(key);
+            synchronized (stripe) {
+                stripe.put(key, value);
+            }
+        }
+
+        void clear() {
+            for (LruMap<K, V> stripe : stripes) {
+                synchronized (stripe) {
+                    stripe.clear();
+                }
+            }
+        }
+    }
+
+    private static final class LruMap<K, V> extends LinkedHashMap<K, V> {
+        private final int maxSize;
+
+        LruMap(int maxSize) {
+            super(16, 0.75f, true);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+            return size() > maxSize;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package org.holoeasy.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Allocates the IDs of client-side entities.
+ * <p>
+ * IDs come from the upper half of the positive int range, which the server's own entity counter
+ * (counting up from 0) never reaches, so they can't collide with real entities.
+ * Each thread that allocates takes IDs from a local cache: fresh blocks of {@value #BLOCK_SIZE} IDs
+ * and IDs it released itself. The shared state is only touched once per block, and released IDs are
+ * reused before new ones are taken, so short-lived holograms don't exhaust the range.
+ * Threads that never allocated, like async workers destroying holograms, have no cache and release
+ * straight to the shared stack, so their IDs aren't stranded where nobody allocates.
+ */
+public final class EntityIdAllocator {
+
+    static final int RANGE_START = 1 << 30;
+    static final int BLOCK_SIZE = 256;
+    private static final int LOCAL_CAPACITY = BLOCK_SIZE * 2;
+
+    // next fresh block, as an offset from RANGE_START
+    private static final AtomicInteger nextBlock = new AtomicInteger(0);
+    private static final IntStack shared = new IntStack();
+    // only set on threads that allocated
+    private static final ThreadLocal<IntStack> local = new ThreadLocal<>();
+
+    private EntityIdAllocator() {
+    }
+
+    public static int allocate() {
+        IntStack cache = local.get();
+        if (cache == null) {
+            cache = new IntStack();
+            local.set(cache);
+        }
+        if (cache.size == 0) {
+            refill(cache);
+        }
+        return cache.pop();
+    }
+
+    /**
+     * Return an ID for reuse. The entity must already be destroyed for every player,
+     * and the ID must not be released twice.
+     */
+    public static void release(int id) {
+        if (!isClientSide(id)) {
+            return;
+        }
+        IntStack cache = local.get();
+        if (cache == null) {
+            synchronized (shared) {
+                shared.push(id);
+            }
+            return;
+        }
+        if (cache.size == LOCAL_CAPACITY) {
+            // keep half locally, hand the rest to other threads
+            synchronized (shared) {
+                for (int i = 0; i < BLOCK_SIZE; i++) {
+                    shared.push(cache.pop());
+                }
+            }
+        }
+        cache.push(id);
+    }
+
+    /**
+     * Whether the ID is in the range of client-side entities, allocated or not.
+     */
+    public static boolean isClientSide(int id) {
+        return id >= RANGE_START;
+    }
+
+    private static void refill(IntStack cache) {
+        synchronized (shared) {
+            int count = Math.min(shared.size, BLOCK_SIZE);
+            for (int i = 0; i < count; i++) {
+                cache.push(shared.pop());
+            }
+        }
+        if (cache.size > 0) {
+            return;
+        }
+
+        int offset = nextBlock.getAndAdd(BLOCK_SIZE);
+        if (offset < 0 || offset > Integer.MAX_VALUE - RANGE_START - BLOCK_SIZE) {
+            throw new IllegalStateException("Hologram entity IDs exhausted, release the IDs of discarded holograms");
+        }
+        // pushed in reverse so IDs are handed out in ascending order
+        for (int i = BLOCK_SIZE - 1; i >= 0; i--) {
+            cache.push(RANGE_START + offset + i);
+        }
+    }
+
+    private static final class IntStack {
+        int[] values = new int[LOCAL_CAPACITY];
+        int size;
+
+        void push(int value) {
+            if (size == values.length) {
+                int[] grown = new int[values.length * 2];
+                System.arraycopy(values, 0, grown, 0, size);
+                values = grown;
+            }
+            values[size++] = value;
+        }
+
+        int pop() {
+            return values[--size];
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package org.holoeasy.util;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Version 4 UUIDs for client-side entities.
+ * <p>
+ * {@link UUID#randomUUID()} draws from a shared {@link java.security.SecureRandom}, which contends
+ * when many spawns run in parallel. Fake entities only need uniqueness, not unpredictability,
+ * so this uses {@link ThreadLocalRandom} instead.
+ */
+public final class FastUUID {
+
+    private FastUUID() {
+    }
+
+    public static @NotNull UUID randomUUID() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long most = random.nextLong();
+        long least = random.nextLong();
+        most = (most & 0xFFFFFFFFFFFF0FFFL) | 0x0000000000004000L; // version 4
+        least = (least & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L; // IETF variant
+        return new UUID(most, least);
+    }
+}
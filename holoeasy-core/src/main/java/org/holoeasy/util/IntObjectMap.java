@@ -0,0 +1,169 @@
+package org.holoeasy.util;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Open-addressing hash map from primitive int keys to objects.
+ * <p>
+ * Uses linear probing with backward-shift deletion, so there are no tombstones and no boxing.
+ * Lookups are lock-free optimistic reads that only fall back to a read lock if a write raced them,
+ * which keeps {@link #get(int)} cheap and allocation-free on hot paths such as Netty threads.
+ */
+public final class IntObjectMap<V> {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final StampedLock lock = new StampedLock();
+    private int[] keys;
+    private Object[] values;
+    private int size;
+
+    public IntObjectMap() {
+        this.keys = new int[INITIAL_CAPACITY];
+        this.values = new Object[INITIAL_CAPACITY];
+    }
+
+    public @Nullable V get(int key) {
+        long stamp = lock.tryOptimisticRead();
+        V value = find(keys, values, key);
+        if (lock.validate(stamp)) {
+            return value;
+        }
+
+        stamp = lock.readLock();
+        try {
+            return find(keys, values, key);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * @return the previous value, or null
+     */
+    public @Nullable V put(int key, @NotNull V value) {
+        long stamp = lock.writeLock();
+        try {
+            if ((size + 1) * 2 > keys.length) {
+                resize(keys.length * 2);
+            }
+            int mask = keys.length - 1;
+            int index = mix(key) & mask;
+            while (values[index] != null) {
+                if (keys[index] == key) {
+                    @SuppressWarnings("unchecked")
+                    V previous = (V) values[index];
+                    values[index] = value;
+                    return previous;
+                }
+                index = (index + 1) & mask;
+            }
+            keys[index] = key;
+            values[index] = value;
+            size++;
+            return null;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Remove the key only if it is currently mapped to the given value.
+     */
+    public boolean remove(int key, @NotNull V value) {
+        long stamp = lock.writeLock();
+        try {
+            int mask = keys.length - 1;
+            int index = mix(key) & mask;
+            while (values[index] != null) {
+                if (keys[index] == key) {
+                    if (values[index] != value) {
+                        return false;
+                    }
+                    shiftBack(index);
+                    size--;
+                    return true;
+                }
+                index = (index + 1) & mask;
+            }
+            return false;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> V find(int[] keys, Object[] values, int key) {
+        // keys and values may belong to different tables during a racing resize, validation catches that
+        int length = Math.min(keys.length, values.length);
+        int mask = length - 1;
+        int index = mix(key) & mask;
+        for (int probes = 0; probes < length; probes++) {
+            Object value = values[index];
+            if (value == null) {
+                return null;
+            }
+            if (keys[index] == key) {
+                return (V) value;
+            }
+            index = (index + 1) & mask;
+        }
+        return null;
+    }
+
+    private void shiftBack(int hole) {
+        int mask = keys.length - 1;
+        int index = (hole + 1) & mask;
+        while (values[index] != null) {
+            int home = mix(keys[index]) & mask;
+            // move the entry into the hole if its home slot is not between the hole and its position
+            if (((index - home) & mask) >= ((index - hole) & mask)) {
+                keys[hole] = keys[index];
+                values[hole] = values[index];
+                hole = index;
+            }
+            index = (index + 1) & mask;
+        }
+        values[hole] = null;
+    }
+
+    private void resize(int capacity) {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        int[] newKeys = new int[capacity];
+        Object[] newValues = new Object[capacity];
+        int mask = capacity - 1;
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] == null) {
+                continue;
+            }
+            int index = mix(oldKeys[i]) & mask;
+            while (newValues[index] != null) {
+                index = (index + 1) & mask;
+            }
+            newKeys[index] = oldKeys[i];
+            newValues[index] = oldValues[i];
+        }
+
+        this.keys = newKeys;
+        this.values = newValues;
+    }
+
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
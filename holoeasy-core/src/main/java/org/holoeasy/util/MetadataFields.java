@@ -0,0 +1,41 @@
+package org.holoeasy.util;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Set of entity metadata indices that were explicitly configured on a line or element.
+ * <p>
+ * Indices are stored as bits of a long, so checking a field costs no boxing or hashing.
+ * Every {@link #add(int)} bumps a modification count that callers can use to tell whether
+ * metadata built from the configured fields is still current.
+ */
+public final class MetadataFields {
+
+    private volatile long bits;
+    private volatile int modCount;
+
+    public synchronized void add(int index) {
+        if (index < 0 || index >= Long.SIZE) {
+            throw new IllegalArgumentException("Metadata index out of range: " + index);
+        }
+        bits |= 1L << index;
+        modCount++;
+    }
+
+    public boolean contains(int index) {
+        return index >= 0 && index < Long.SIZE && (bits & (1L << index)) != 0;
+    }
+
+    public boolean isEmpty() {
+        return bits == 0;
+    }
+
+    public int getModCount() {
+        return modCount;
+    }
+
+    public synchronized void copyFrom(@NotNull MetadataFields other) {
+        this.bits = other.bits;
+        this.modCount = other.modCount;
+    }
+}
@@ -0,0 +1,117 @@
+package org.holoeasy.util;
+
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Hashed timing wheel for repeating tasks measured in server ticks.
+ * <p>
+ * Tasks are hashed into {@value #WHEEL_SIZE} slots by their next deadline; each {@link #tick()} only
+ * visits one slot and runs every task due in that tick as one batch. Scheduling and cancelling are
+ * safe from any thread, ticking must be done by a single driver (see {@link org.holoeasy.HoloEasy}).
+ */
+public final class TimingWheel {
+
+    private static final Logger log = LoggerFactory.getLogger(TimingWheel.class);
+
+    private static final int WHEEL_SIZE = 256; // must be a power of two
+    private static final int MASK = WHEEL_SIZE - 1;
+
+    private final List<List<Entry>> slots = new ArrayList<>(WHEEL_SIZE);
+    private final Queue<Entry> pending = new ConcurrentLinkedQueue<>();
+    private final List<Entry> due = new ArrayList<>();
+    private long currentTick = 0;
+
+    public TimingWheel() {
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            slots.add(new ArrayList<>());
+        }
+    }
+
+    /**
+     * Run the task every {@code intervalTicks}, starting one interval from now.
+     */
+    public @NotNull Handle schedule(int intervalTicks, @NotNull Runnable task) {
+        if (intervalTicks <= 0) {
+            throw new IllegalArgumentException("Interval must be positive, got " + intervalTicks);
+        }
+        Entry entry = new Entry(intervalTicks, task);
+        pending.add(entry);
+        return entry;
+    }
+
+    public synchronized void tick() {
+        Entry entry;
+        while ((entry = pending.poll()) != null) {
+            if (!entry.cancelled) {
+                place(entry, currentTick + entry.interval);
+            }
+        }
+
+        List<Entry> slot = slots.get((int) (currentTick & MASK));
+        for (int i = slot.size() - 1; i >= 0; i--) {
+            Entry e = slot.get(i);
+            if (e.cancelled || e.deadline <= currentTick) {
+                // swap-remove, order inside a slot doesn't matter
+                slot.set(i, slot.get(slot.size() - 1));
+                slot.remove(slot.size() - 1);
+                if (!e.cancelled) {
+                    due.add(e);
+                }
+            }
+        }
+
+        for (Entry e : due) {
+            try {
+                e.task.run();
+            } catch (Throwable t) {
+                log.warn("Scheduled hologram task failed", t);
+            }
+            if (!e.cancelled) {
+                place(e, currentTick + e.interval);
+            }
+        }
+        due.clear();
+
+        currentTick++;
+    }
+
+    private void place(Entry entry, long deadline) {
+        entry.deadline = deadline;
+        slots.get((int) (deadline & MASK)).add(entry);
+    }
+
+    public interface Handle {
+        void cancel();
+
+        boolean isCancelled();
+    }
+
+    private static final class Entry implements Handle {
+        final int interval;
+        final Runnable task;
+        long deadline;
+        volatile boolean cancelled;
+
+        Entry(int interval, Runnable task) {
+            this.interval = interval;
+            this.task = task;
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+}
@@ -3,31 +3,14 @@ package org.holoeasy.plugin;
 
 import com.github.retrooper.packetevents.PacketEvents;
 import io.github.retrooper.packetevents.factory.spigot.SpigotPacketEventsBuilder;
-import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.entity.Player;
-import org.bukkit.event.EventHandler;
-import org.bukkit.event.Listener;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.holoeasy.HoloEasy;
-import org.holoeasy.event.AsyncHologramInteractEvent;
-import org.holoeasy.hologram.Hologram;
 import org.holoeasy.pool.IHologramPool;
 
 
-public class ExamplePlugin extends JavaPlugin implements Listener {
-
-    @EventHandler
-    public void onClick(AsyncHologramInteractEvent event) {
-        // ** Handle click on hologram line
-        Hologram hologram = event.getLine().getHologram();
-        if (hologram instanceof MyCounterHolo) {
-            MyCounterHolo myHolo = (MyCounterHolo) hologram;
-
-            myHolo.onClick(event.getPlayer()); // Increment click count
-        }
-    }
-
+public class ExamplePlugin extends JavaPlugin {
 
     private HoloEasy holoEasy;
 
@@ -66,8 +49,6 @@ public class ExamplePlugin extends JavaPlugin implements Listener {
             hologram.show(myPool);
             return true;
         });
-        Bukkit.getPluginManager().registerEvents(this, this);
-
     }
 
 }
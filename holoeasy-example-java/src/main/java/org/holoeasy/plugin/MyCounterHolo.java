@@ -12,18 +12,21 @@ import org.holoeasy.hologram.Hologram;
 import org.holoeasy.line.*;
 import org.holoeasy.line.composite.ItemDisplayElement;
 import org.holoeasy.line.composite.TextDisplayElement;
+import org.holoeasy.property.Property;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class MyCounterHolo extends Hologram {
 
-    private int clickCount = 0;
+    private final Property<Integer> clickCount = Property.of(0);
     private int diamondCount = 5;
     private int emeraldCount = 12;
     private int goldCount = 3;
-    private final Map<UUID, Integer> playerClickCounts = new java.util.HashMap<>();
+    // written by click handlers, which run on Netty threads by default
+    private final Map<UUID, Integer> playerClickCounts = new ConcurrentHashMap<>();
 
     // Composite line with items
     private final CompositeDisplayLine itemsRow = compositeLine()
@@ -55,7 +58,8 @@ public class MyCounterHolo extends Hologram {
                     .width(0.5f))
             .yOffset(4.0f);
 
-    private final DisplayTextLine global_counter = displayTextLine(player -> LegacyComponentSerializer.legacyAmpersand().deserialize("Clicked " + clickCount + " times"))
+    // Refreshed automatically whenever clickCount changes
+    private final DisplayTextLine global_counter = clickCount.bind(displayTextLine(player -> LegacyComponentSerializer.legacyAmpersand().deserialize("Clicked " + clickCount.get() + " times")))
             .shadow(true)
             .backgroundColor(0x80FF0000)
             .scale(2.5f)
@@ -67,14 +71,14 @@ public class MyCounterHolo extends Hologram {
 
     private final Line<?> interactionLine = interactionLine()
             .height(1.0f)
+            .onInteract(this::onClick)
             .yOffset(1f);
 
 
     public void onClick(@NotNull Player player) {
-        clickCount++;
-        playerClickCounts.compute(player.getUniqueId(), (uuid, count) -> count == null ? 1 : count + 1);
+        clickCount.update(count -> count + 1);
+        playerClickCounts.merge(player.getUniqueId(), 1, Integer::sum);
 
-        global_counter.updateAll();
         player_counter.update(player);
     }
 
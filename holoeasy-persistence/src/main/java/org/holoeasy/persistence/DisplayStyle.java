@@ -0,0 +1,292 @@
+package org.holoeasy.persistence;
+
+import org.holoeasy.line.AbstractDisplayLine;
+import org.holoeasy.line.DisplayItemLine;
+import org.holoeasy.line.DisplayTextLine;
+import org.holoeasy.line.composite.AbstractDisplayElement;
+import org.holoeasy.line.composite.ItemDisplayElement;
+import org.holoeasy.line.composite.TextDisplayElement;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Display properties of a stored display line or composite element.
+ * <p>Only the properties that were set are stored and applied, the others keep the defaults of the line.</p>
+ */
+public final class DisplayStyle {
+
+    // Property bits, in the order they are written
+    static final int BILLBOARD = 1;
+    static final int TRANSLATION = 1 << 1;
+    static final int SCALE = 1 << 2;
+    static final int ROTATION_LEFT = 1 << 3;
+    static final int ROTATION_RIGHT = 1 << 4;
+    static final int BRIGHTNESS = 1 << 5;
+    static final int VIEW_RANGE = 1 << 6;
+    static final int SHADOW_RADIUS = 1 << 7;
+    static final int SHADOW_STRENGTH = 1 << 8;
+    static final int GLOW_COLOR = 1 << 9;
+    static final int LINE_WIDTH = 1 << 10;
+    static final int BACKGROUND_COLOR = 1 << 11;
+    static final int TEXT_OPACITY = 1 << 12;
+    static final int TEXT_OPTIONS = 1 << 13;
+    static final int ITEM_DISPLAY_TYPE = 1 << 14;
+
+    int mask;
+    byte billboard;
+    final float[] translation = new float[3];
+    final float[] scale = new float[3];
+    final float[] rotationLeft = new float[4];
+    final float[] rotationRight = new float[4];
+    int blockLight;
+    int skyLight;
+    float viewRange;
+    float shadowRadius;
+    float shadowStrength;
+    int glowColor;
+    int lineWidth;
+    int backgroundColor;
+    byte textOpacity;
+    byte textOptions;
+    byte itemDisplayType;
+
+    public DisplayStyle billboard(byte billboard) {
+        this.billboard = billboard;
+        mask |= BILLBOARD;
+        return this;
+    }
+
+    public DisplayStyle translation(float x, float y, float z) {
+        set(translation, x, y, z);
+        mask |= TRANSLATION;
+        return this;
+    }
+
+    public DisplayStyle scale(float x, float y, float z) {
+        set(scale, x, y, z);
+        mask |= SCALE;
+        return this;
+    }
+
+    public DisplayStyle scale(float scale) {
+        return scale(scale, scale, scale);
+    }
+
+    public DisplayStyle rotationLeft(float x, float y, float z, float w) {
+        set(rotationLeft, x, y, z, w);
+        mask |= ROTATION_LEFT;
+        return this;
+    }
+
+    public DisplayStyle rotationRight(float x, float y, float z, float w) {
+        set(rotationRight, x, y, z, w);
+        mask |= ROTATION_RIGHT;
+        return this;
+    }
+
+    public DisplayStyle brightness(int blockLight, int skyLight) {
+        this.blockLight = blockLight;
+        this.skyLight = skyLight;
+        mask |= BRIGHTNESS;
+        return this;
+    }
+
+    public DisplayStyle viewRange(float range) {
+        this.viewRange = range;
+        mask |= VIEW_RANGE;
+        return this;
+    }
+
+    public DisplayStyle shadowRadius(float radius) {
+        this.shadowRadius = radius;
+        mask |= SHADOW_RADIUS;
+        return this;
+    }
+
+    public DisplayStyle shadowStrength(float strength) {
+        this.shadowStrength = strength;
+        mask |= SHADOW_STRENGTH;
+        return this;
+    }
+
+    public DisplayStyle glowColorOverride(int color) {
+        this.glowColor = color;
+        mask |= GLOW_COLOR;
+        return this;
+    }
+
+    /**
+     * Text displays only.
+     */
+    public DisplayStyle lineWidth(int lineWidth) {
+        this.lineWidth = lineWidth;
+        mask |= LINE_WIDTH;
+        return this;
+    }
+
+    /**
+     * Text displays only.
+     */
+    public DisplayStyle backgroundColor(int backgroundColor) {
+        this.backgroundColor = backgroundColor;
+        mask |= BACKGROUND_COLOR;
+        return this;
+    }
+
+    /**
+     * Text displays only.
+     */
+    public DisplayStyle textOpacity(byte textOpacity) {
+        this.textOpacity = textOpacity;
+        mask |= TEXT_OPACITY;
+        return this;
+    }
+
+    /**
+     * Text displays only, see {@link DisplayTextLine#textOptions(byte)}.
+     */
+    public DisplayStyle textOptions(byte textOptions) {
+        this.textOptions = textOptions;
+        mask |= TEXT_OPTIONS;
+        return this;
+    }
+
+    /**
+     * Item displays only.
+     */
+    public DisplayStyle itemDisplayType(@NotNull DisplayItemLine.ItemDisplayType displayType) {
+        this.itemDisplayType = displayType.getValue();
+        mask |= ITEM_DISPLAY_TYPE;
+        return this;
+    }
+
+    boolean isEmpty() {
+        return mask == 0;
+    }
+
+    boolean has(int property) {
+        return (mask & property) != 0;
+    }
+
+    void applyTo(@NotNull AbstractDisplayLine<?, ?> line) {
+        if (has(BILLBOARD)) {
+            line.billboard(billboard);
+        }
+        if (has(TRANSLATION)) {
+            line.translation(translation[0], translation[1], translation[2]);
+        }
+        if (has(SCALE)) {
+            line.scale(scale[0], scale[1], scale[2]);
+        }
+        if (has(ROTATION_LEFT)) {
+            line.rotationLeft(rotationLeft[0], rotationLeft[1], rotationLeft[2], rotationLeft[3]);
+        }
+        if (has(ROTATION_RIGHT)) {
+            line.rotationRight(rotationRight[0], rotationRight[1], rotationRight[2], rotationRight[3]);
+        }
+        if (has(BRIGHTNESS)) {
+            line.brightness(blockLight, skyLight);
+        }
+        if (has(VIEW_RANGE)) {
+            line.viewRange(viewRange);
+        }
+        if (has(SHADOW_RADIUS)) {
+            line.shadowRadius(shadowRadius);
+        }
+        if (has(SHADOW_STRENGTH)) {
+            line.shadowStrength(shadowStrength);
+        }
+        if (has(GLOW_COLOR)) {
+            line.glowColorOverride(glowColor);
+        }
+
+        if (line instanceof DisplayTextLine) {
+            DisplayTextLine text = (DisplayTextLine) line;
+            if (has(LINE_WIDTH)) {
+                text.lineWidth(lineWidth);
+            }
+            if (has(BACKGROUND_COLOR)) {
+                text.backgroundColor(backgroundColor);
+            }
+            if (has(TEXT_OPACITY)) {
+                text.textOpacity(textOpacity);
+            }
+            if (has(TEXT_OPTIONS)) {
+                text.textOptions(textOptions);
+            }
+        } else if (line instanceof DisplayItemLine) {
+            if (has(ITEM_DISPLAY_TYPE)) {
+                ((DisplayItemLine) line).itemDisplayType(itemDisplayType);
+            }
+        }
+    }
+
+    void applyTo(@NotNull AbstractDisplayElement<?, ?> element) {
+        if (has(BILLBOARD)) {
+            element.billboard(billboard);
+        }
+        if (has(TRANSLATION)) {
+            element.translation(translation[0], translation[1], translation[2]);
+        }
+        if (has(SCALE)) {
+            element.scale(scale[0], scale[1], scale[2]);
+        }
+        if (has(ROTATION_LEFT)) {
+            element.rotationLeft(rotationLeft[0], rotationLeft[1], rotationLeft[2], rotationLeft[3]);
+        }
+        if (has(ROTATION_RIGHT)) {
+            element.rotationRight(rotationRight[0], rotationRight[1], rotationRight[2], rotationRight[3]);
+        }
+        if (has(BRIGHTNESS)) {
+            element.brightness(blockLight, skyLight);
+        }
+        if (has(VIEW_RANGE)) {
+            element.viewRange(viewRange);
+        }
+        if (has(SHADOW_RADIUS)) {
+            element.shadowRadius(shadowRadius);
+        }
+        if (has(SHADOW_STRENGTH)) {
+            element.shadowStrength(shadowStrength);
+        }
+        if (has(GLOW_COLOR)) {
+            element.glowColorOverride(glowColor);
+        }
+
+        if (element instanceof TextDisplayElement) {
+            TextDisplayElement text = (TextDisplayElement) element;
+            if (has(LINE_WIDTH)) {
+                text.lineWidth(lineWidth);
+            }
+            if (has(BACKGROUND_COLOR)) {
+                text.backgroundColor(backgroundColor);
+            }
+            if (has(TEXT_OPACITY)) {
+                text.textOpacity(textOpacity);
+            }
+            if (has(TEXT_OPTIONS)) {
+                // elements have no raw setter, same bit layout as DisplayTextLine
+                text.shadow((textOptions & DisplayTextLine.FLAG_HAS_SHADOW) != 0)
+                        .seeThrough((textOptions & DisplayTextLine.FLAG_IS_SEE_THROUGH) != 0)
+                        .useDefaultBackground((textOptions & DisplayTextLine.FLAG_USE_DEFAULT_BACKGROUND) != 0)
+                        .alignment(alignment((textOptions >> 3) & 0x03));
+            }
+        } else if (element instanceof ItemDisplayElement) {
+            if (has(ITEM_DISPLAY_TYPE)) {
+                ((ItemDisplayElement) element).itemDisplayType(itemDisplayType);
+            }
+        }
+    }
+
+    private static DisplayTextLine.TextAlignment alignment(int value) {
+        for (DisplayTextLine.TextAlignment alignment : DisplayTextLine.TextAlignment.values()) {
+            if (alignment.getValue() == value) {
+                return alignment;
+            }
+        }
+        return DisplayTextLine.TextAlignment.CENTER;
+    }
+
+    private static void set(float[] target, float... values) {
+        System.arraycopy(values, 0, target, 0, values.length);
+    }
+}
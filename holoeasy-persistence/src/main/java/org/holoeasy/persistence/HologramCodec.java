@@ -0,0 +1,420 @@
+package org.holoeasy.persistence;
+
+import org.holoeasy.line.CompositeDisplayLine;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.CRC32;
+
+/**
+ * Binary format of hologram store files, big-endian.
+ * <pre>
+ * file    := magic:int version:short reserved:short segment*
+ * segment := length:int crc32:int payload[length]
+ * payload := newStrings:varint (byteLength:varint utf8)* records:varint record*
+ * record  := PUT msb:long lsb:long hologram | REMOVE msb:long lsb:long
+ * hologram:= world:string x:double y:double z:double yaw:float lineSpacing:float lines:varint line*
+ * line    := type:byte flags:byte [value:string] [amount:varint] [yOffset:double] [style]
+ *            [alignment:byte yTranslation:float elements:varint element*]
+ * element := type:byte flags:byte [value:string] [width:float] [style]
+ * style   := mask:varint, then every property in the mask in bit order
+ * </pre>
+ * Strings are varint indexes into the string table, which every segment extends. A segment that is
+ * truncated or fails its checksum ends the file, it is overwritten by the next save.
+ */
+final class HologramCodec {
+
+    static final int MAGIC = 0x484F4C4F; // "HOLO"
+    static final short FORMAT_VERSION = 1;
+    static final int HEADER_SIZE = 8;
+    static final int SEGMENT_HEADER_SIZE = 8;
+
+    static final byte OP_PUT = 0;
+    static final byte OP_REMOVE = 1;
+
+    private static final int HAS_Y_OFFSET = 1;
+    private static final int HAS_STYLE = 1 << 1;
+    private static final int HAS_WIDTH = 1 << 2;
+
+    private HologramCodec() {
+    }
+
+    static byte[] header() {
+        return ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putShort(FORMAT_VERSION).putShort((short) 0).array();
+    }
+
+    /**
+     * Check the file header and return the format version.
+     */
+    static int readHeader(ByteBuffer in) throws IOException {
+        if (in.remaining() < HEADER_SIZE || in.getInt() != MAGIC) {
+            throw new IOException("Not a hologram store");
+        }
+        int version = in.getShort();
+        in.getShort();
+        if (version > FORMAT_VERSION) {
+            throw new IOException("Unsupported hologram store version " + version + ", expected at most " + FORMAT_VERSION);
+        }
+        return version;
+    }
+
+    // ==================== Writing ====================
+
+    /**
+     * Encode a complete segment putting the given holograms and removing the given IDs.
+     * Strings are interned into the table, the caller commits or rolls it back.
+     */
+    static byte[] encodeSegment(List<StoredHologram> puts, List<UUID> removes, StringTable strings) throws IOException {
+        ByteArrayOutputStream recordBytes = new ByteArrayOutputStream();
+        DataOutputStream records = new DataOutputStream(recordBytes);
+        writeVarInt(records, puts.size() + removes.size());
+        for (StoredHologram hologram : puts) {
+            records.writeByte(OP_PUT);
+            writeUUID(records, hologram.id);
+            writeHologram(records, hologram, strings);
+        }
+        for (UUID id : removes) {
+            records.writeByte(OP_REMOVE);
+            writeUUID(records, id);
+        }
+
+        ByteArrayOutputStream payloadBytes = new ByteArrayOutputStream(recordBytes.size() + 64);
+        DataOutputStream payload = new DataOutputStream(payloadBytes);
+        List<String> added = strings.uncommitted();
+        writeVarInt(payload, added.size());
+        for (String value : added) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(payload, bytes.length);
+            payload.write(bytes);
+        }
+        recordBytes.writeTo(payload);
+
+        byte[] body = payloadBytes.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(body, 0, body.length);
+        return ByteBuffer.allocate(SEGMENT_HEADER_SIZE + body.length)
+                .putInt(body.length)
+                .putInt((int) crc.getValue())
+                .put(body)
+                .array();
+    }
+
+    private static void writeHologram(DataOutputStream out, StoredHologram hologram, StringTable strings) throws IOException {
+        writeVarInt(out, strings.intern(hologram.world));
+        out.writeDouble(hologram.x);
+        out.writeDouble(hologram.y);
+        out.writeDouble(hologram.z);
+        out.writeFloat(hologram.yaw);
+        out.writeFloat(hologram.lineSpacing);
+        writeVarInt(out, hologram.lines.size());
+        for (StoredLine line : hologram.lines) {
+            writeLine(out, line, strings);
+        }
+    }
+
+    private static void writeLine(DataOutputStream out, StoredLine line, StringTable strings) throws IOException {
+        boolean hasStyle = line.style != null && !line.style.isEmpty();
+        int flags = (line.yOffset != 0 ? HAS_Y_OFFSET : 0) | (hasStyle ? HAS_STYLE : 0);
+        out.writeByte(line.type.ordinal());
+        out.writeByte(flags);
+        if (line.type != StoredLine.Type.COMPOSITE) {
+            writeVarInt(out, strings.intern(line.value));
+        }
+        if (line.type == StoredLine.Type.ITEM) {
+            writeVarInt(out, line.amount);
+        }
+        if (line.yOffset != 0) {
+            out.writeDouble(line.yOffset);
+        }
+        if (hasStyle) {
+            writeStyle(out, line.style);
+        }
+        if (line.type == StoredLine.Type.COMPOSITE) {
+            out.writeByte(line.alignment.ordinal());
+            out.writeFloat(line.yTranslation);
+            writeVarInt(out, line.elements.size());
+            for (StoredElement element : line.elements) {
+                writeElement(out, element, strings);
+            }
+        }
+    }
+
+    private static void writeElement(DataOutputStream out, StoredElement element, StringTable strings) throws IOException {
+        boolean hasStyle = element.style != null && !element.style.isEmpty();
+        int flags = (element.width >= 0 ? HAS_WIDTH : 0) | (hasStyle ? HAS_STYLE : 0);
+        out.writeByte(element.type.ordinal());
+        out.writeByte(flags);
+        if (element.type != StoredElement.Type.SPACER) {
+            writeVarInt(out, strings.intern(element.value));
+        }
+        if (element.width >= 0) {
+            out.writeFloat(element.width);
+        }
+        if (hasStyle) {
+            writeStyle(out, element.style);
+        }
+    }
+
+    private static void writeStyle(DataOutputStream out, DisplayStyle style) throws IOException {
+        writeVarInt(out, style.mask);
+        if (style.has(DisplayStyle.BILLBOARD)) {
+            out.writeByte(style.billboard);
+        }
+        if (style.has(DisplayStyle.TRANSLATION)) {
+            writeFloats(out, style.translation);
+        }
+        if (style.has(DisplayStyle.SCALE)) {
+            writeFloats(out, style.scale);
+        }
+        if (style.has(DisplayStyle.ROTATION_LEFT)) {
+            writeFloats(out, style.rotationLeft);
+        }
+        if (style.has(DisplayStyle.ROTATION_RIGHT)) {
+            writeFloats(out, style.rotationRight);
+        }
+        if (style.has(DisplayStyle.BRIGHTNESS)) {
+            out.writeByte(style.blockLight);
+            out.writeByte(style.skyLight);
+        }
+        if (style.has(DisplayStyle.VIEW_RANGE)) {
+            out.writeFloat(style.viewRange);
+        }
+        if (style.has(DisplayStyle.SHADOW_RADIUS)) {
+            out.writeFloat(style.shadowRadius);
+        }
+        if (style.has(DisplayStyle.SHADOW_STRENGTH)) {
+            out.writeFloat(style.shadowStrength);
+        }
+        if (style.has(DisplayStyle.GLOW_COLOR)) {
+            out.writeInt(style.glowColor);
+        }
+        if (style.has(DisplayStyle.LINE_WIDTH)) {
+            writeVarInt(out, style.lineWidth);
+        }
+        if (style.has(DisplayStyle.BACKGROUND_COLOR)) {
+            out.writeInt(style.backgroundColor);
+        }
+        if (style.has(DisplayStyle.TEXT_OPACITY)) {
+            out.writeByte(style.textOpacity);
+        }
+        if (style.has(DisplayStyle.TEXT_OPTIONS)) {
+            out.writeByte(style.textOptions);
+        }
+        if (style.has(DisplayStyle.ITEM_DISPLAY_TYPE)) {
+            out.writeByte(style.itemDisplayType);
+        }
+    }
+
+    private static void writeFloats(DataOutputStream out, float[] values) throws IOException {
+        for (float value : values) {
+            out.writeFloat(value);
+        }
+    }
+
+    private static void writeUUID(DataOutputStream out, UUID id) throws IOException {
+        out.writeLong(id.getMostSignificantBits());
+        out.writeLong(id.getLeastSignificantBits());
+    }
+
+    static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    // ==================== Reading ====================
+
+    /**
+     * Check the checksum of the segment at the buffer position and return its payload, positioned after it.
+     *
+     * @return null if the segment is truncated, or corrupted as the last one of the file: the torn tail of
+     * an interrupted save
+     * @throws IOException if the checksum doesn't match and more data follows the segment
+     */
+    static ByteBuffer readSegment(ByteBuffer in) throws IOException {
+        if (in.remaining() < SEGMENT_HEADER_SIZE) {
+            return null;
+        }
+        int length = in.getInt();
+        int expectedCrc = in.getInt();
+        if (length < 0 || length > in.remaining()) {
+            return null;
+        }
+        ByteBuffer payload = in.slice();
+        ((Buffer) payload).limit(length); // Buffer methods, Java 8 has no covariant overrides
+
+        CRC32 crc = new CRC32();
+        crc.update(payload.duplicate());
+        if ((int) crc.getValue() != expectedCrc) {
+            if (length < in.remaining()) {
+                // a save only ever tears the end of the file, later segments must not be dropped
+                throw new IOException("Segment checksum mismatch");
+            }
+            return null;
+        }
+        ((Buffer) in).position(in.position() + length);
+        return payload;
+    }
+
+    /**
+     * Read the strings added by a segment into the table.
+     */
+    static void readStrings(ByteBuffer in, StringTable strings) {
+        int count = readVarInt(in);
+        for (int i = 0; i < count; i++) {
+            byte[] bytes = new byte[readVarInt(in)];
+            in.get(bytes);
+            strings.load(new String(bytes, StandardCharsets.UTF_8));
+        }
+    }
+
+    static UUID readUUID(ByteBuffer in) {
+        return new UUID(in.getLong(), in.getLong());
+    }
+
+    static StoredHologram readHologram(ByteBuffer in, UUID id, StringTable strings) {
+        String world = strings.get(readVarInt(in));
+        double x = in.getDouble();
+        double y = in.getDouble();
+        double z = in.getDouble();
+        float yaw = in.getFloat();
+        float lineSpacing = in.getFloat();
+        int count = readVarInt(in);
+        List<StoredLine> lines = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            lines.add(readLine(in, strings));
+        }
+        return new StoredHologram(id, world, x, y, z, yaw, lineSpacing, Collections.unmodifiableList(lines));
+    }
+
+    private static StoredLine readLine(ByteBuffer in, StringTable strings) {
+        StoredLine.Type type = ordinal(StoredLine.Type.values(), in.get());
+        int flags = in.get();
+        String value = type != StoredLine.Type.COMPOSITE ? strings.get(readVarInt(in)) : null;
+        StoredLine line = new StoredLine(type, value);
+        if (type == StoredLine.Type.ITEM) {
+            line.amount = readVarInt(in);
+        }
+        if ((flags & HAS_Y_OFFSET) != 0) {
+            line.yOffset = in.getDouble();
+        }
+        if ((flags & HAS_STYLE) != 0) {
+            line.style = readStyle(in);
+        }
+        if (type == StoredLine.Type.COMPOSITE) {
+            line.alignment = ordinal(CompositeDisplayLine.Alignment.values(), in.get());
+            line.yTranslation = in.getFloat();
+            int count = readVarInt(in);
+            List<StoredElement> elements = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                elements.add(readElement(in, strings));
+            }
+            line.elements = Collections.unmodifiableList(elements);
+        }
+        return line;
+    }
+
+    private static StoredElement readElement(ByteBuffer in, StringTable strings) {
+        StoredElement.Type type = ordinal(StoredElement.Type.values(), in.get());
+        int flags = in.get();
+        String value = type != StoredElement.Type.SPACER ? strings.get(readVarInt(in)) : null;
+        StoredElement element = new StoredElement(type, value);
+        if ((flags & HAS_WIDTH) != 0) {
+            element.width = in.getFloat();
+        }
+        if ((flags & HAS_STYLE) != 0) {
+            element.style = readStyle(in);
+        }
+        return element;
+    }
+
+    private static DisplayStyle readStyle(ByteBuffer in) {
+        DisplayStyle style = new DisplayStyle();
+        style.mask = readVarInt(in);
+        if (style.has(DisplayStyle.BILLBOARD)) {
+            style.billboard = in.get();
+        }
+        if (style.has(DisplayStyle.TRANSLATION)) {
+            readFloats(in, style.translation);
+        }
+        if (style.has(DisplayStyle.SCALE)) {
+            readFloats(in, style.scale);
+        }
+        if (style.has(DisplayStyle.ROTATION_LEFT)) {
+            readFloats(in, style.rotationLeft);
+        }
+        if (style.has(DisplayStyle.ROTATION_RIGHT)) {
+            readFloats(in, style.rotationRight);
+        }
+        if (style.has(DisplayStyle.BRIGHTNESS)) {
+            style.blockLight = in.get();
+            style.skyLight = in.get();
+        }
+        if (style.has(DisplayStyle.VIEW_RANGE)) {
+            style.viewRange = in.getFloat();
+        }
+        if (style.has(DisplayStyle.SHADOW_RADIUS)) {
+            style.shadowRadius = in.getFloat();
+        }
+        if (style.has(DisplayStyle.SHADOW_STRENGTH)) {
+            style.shadowStrength = in.getFloat();
+        }
+        if (style.has(DisplayStyle.GLOW_COLOR)) {
+            style.glowColor = in.getInt();
+        }
+        if (style.has(DisplayStyle.LINE_WIDTH)) {
+            style.lineWidth = readVarInt(in);
+        }
+        if (style.has(DisplayStyle.BACKGROUND_COLOR)) {
+            style.backgroundColor = in.getInt();
+        }
+        if (style.has(DisplayStyle.TEXT_OPACITY)) {
+            style.textOpacity = in.get();
+        }
+        if (style.has(DisplayStyle.TEXT_OPTIONS)) {
+            style.textOptions = in.get();
+        }
+        if (style.has(DisplayStyle.ITEM_DISPLAY_TYPE)) {
+            style.itemDisplayType = in.get();
+        }
+        return style;
+    }
+
+    private static void readFloats(ByteBuffer in, float[] values) {
+        for (int i = 0; i < values.length; i++) {
+            values[i] = in.getFloat();
+        }
+    }
+
+    private static <E extends Enum<E>> E ordinal(E[] values, int ordinal) {
+        if (ordinal < 0 || ordinal >= values.length) {
+            throw new IllegalArgumentException("Unknown " + values.getClass().getComponentType().getSimpleName() + " " + ordinal);
+        }
+        return values[ordinal];
+    }
+
+    static int readVarInt(ByteBuffer in) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            if (shift >= 35) {
+                throw new IllegalArgumentException("VarInt too long");
+            }
+            b = in.get();
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+}
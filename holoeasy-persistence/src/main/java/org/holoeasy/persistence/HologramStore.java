@@ -0,0 +1,255 @@
+package org.holoeasy.persistence;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * File of {@link StoredHologram}s in the binary format of {@link HologramCodec}.
+ * <p>
+ * The file is read in a single pass into memory. Saving is incremental: only the holograms put or removed since
+ * the last save are appended, in one checksummed segment, and the file is rewritten once it holds more
+ * stale records than live ones. A save interrupted by a crash only loses that segment.
+ * </p>
+ * <pre>{@code
+ * HologramStore store = new HologramStore(getDataFolder().toPath().resolve("holograms.bin"));
+ * store.loadAsync(executor).thenAccept(holograms -> ...);
+ * }</pre>
+ */
+public class HologramStore {
+
+    private static final int MIN_COMPACT_RECORDS = 1024;
+
+    private final Path file;
+    private final Map<UUID, StoredHologram> holograms = new LinkedHashMap<>();
+    private final Set<UUID> dirty = new LinkedHashSet<>();
+    private StringTable strings = new StringTable();
+    private long validLength = 0; // header and complete segments, anything after is overwritten
+    private int fileRecords = 0;
+    private boolean loaded = false;
+
+    public HologramStore(@NotNull Path file) {
+        this.file = file;
+    }
+
+    public @NotNull Path getFile() {
+        return file;
+    }
+
+    /**
+     * Read the file, replacing the holograms of this store. A missing file is an empty store.
+     */
+    public synchronized @NotNull Collection<StoredHologram> load() throws IOException {
+        // a store that failed to load must not be saved over the file
+        loaded = false;
+        holograms.clear();
+        dirty.clear();
+        strings = new StringTable();
+        validLength = 0;
+        fileRecords = 0;
+
+        if (Files.exists(file) && Files.size(file) > 0) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                long size = channel.size();
+                if (size > Integer.MAX_VALUE) {
+                    throw new IOException("Hologram store " + file + " is too large");
+                }
+                // a heap copy, not a memory map: a mapping can't be released explicitly and, on Windows,
+                // keeps save from truncating the file and compact from replacing it
+                ByteBuffer buffer = ByteBuffer.allocate((int) size);
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer) < 0) {
+                        break;
+                    }
+                }
+                ((Buffer) buffer).flip(); // Buffer method, Java 8 has no covariant override
+                read(buffer);
+            }
+        }
+        loaded = true;
+        return getHolograms();
+    }
+
+    public @NotNull CompletableFuture<Collection<StoredHologram>> loadAsync(@NotNull Executor executor) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return load();
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    private void read(ByteBuffer buffer) throws IOException {
+        HologramCodec.readHeader(buffer);
+        validLength = buffer.position();
+
+        while (true) {
+            ByteBuffer payload;
+            try {
+                payload = HologramCodec.readSegment(buffer);
+            } catch (IOException e) {
+                throw new IOException("Corrupted hologram store " + file + " at " + validLength, e);
+            }
+            if (payload == null) {
+                break;
+            }
+            try {
+                HologramCodec.readStrings(payload, strings);
+                int count = HologramCodec.readVarInt(payload);
+                for (int i = 0; i < count; i++) {
+                    byte op = payload.get();
+                    UUID id = HologramCodec.readUUID(payload);
+                    if (op == HologramCodec.OP_PUT) {
+                        holograms.put(id, HologramCodec.readHologram(payload, id, strings));
+                    } else {
+                        holograms.remove(id);
+                    }
+                }
+                fileRecords += count;
+            } catch (BufferUnderflowException | IllegalArgumentException | IndexOutOfBoundsException e) {
+                // the checksum matched, so the data itself is invalid
+                throw new IOException("Corrupted hologram store " + file + " at " + validLength, e);
+            }
+            validLength = buffer.position();
+        }
+    }
+
+    public synchronized @Nullable StoredHologram get(@NotNull UUID id) {
+        return holograms.get(id);
+    }
+
+    public synchronized @NotNull Collection<StoredHologram> getHolograms() {
+        return Collections.unmodifiableList(new ArrayList<>(holograms.values()));
+    }
+
+    /**
+     * Add or replace a hologram, written by the next {@link #save()}.
+     */
+    public synchronized void put(@NotNull StoredHologram hologram) {
+        holograms.put(hologram.id, hologram);
+        dirty.add(hologram.id);
+    }
+
+    public synchronized boolean remove(@NotNull UUID id) {
+        if (holograms.remove(id) == null) {
+            return false;
+        }
+        dirty.add(id);
+        return true;
+    }
+
+    /**
+     * Append the holograms put or removed since the last save.
+     *
+     * @throws IllegalStateException if the store wasn't loaded first
+     */
+    public synchronized void save() throws IOException {
+        if (!loaded) {
+            throw new IllegalStateException("Cannot save a hologram store before loading it.");
+        }
+        if (dirty.isEmpty()) {
+            return;
+        }
+        if (fileRecords + dirty.size() > Math.max(MIN_COMPACT_RECORDS, holograms.size() * 2)) {
+            compact();
+            return;
+        }
+
+        List<StoredHologram> puts = new ArrayList<>();
+        List<UUID> removes = new ArrayList<>();
+        for (UUID id : dirty) {
+            StoredHologram hologram = holograms.get(id);
+            if (hologram != null) {
+                puts.add(hologram);
+            } else {
+                removes.add(id);
+            }
+        }
+
+        try {
+            byte[] segment = HologramCodec.encodeSegment(puts, removes, strings);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                if (validLength == 0) {
+                    write(channel, 0, HologramCodec.header());
+                    validLength = HologramCodec.HEADER_SIZE;
+                }
+                // drops a segment left incomplete by a previous crash
+                channel.truncate(validLength);
+                write(channel, validLength, segment);
+                channel.force(false);
+            }
+            validLength += segment.length;
+        } catch (IOException | RuntimeException e) {
+            strings.rollback();
+            throw e;
+        }
+        strings.commit();
+        fileRecords += dirty.size();
+        dirty.clear();
+    }
+
+    public @NotNull CompletableFuture<Void> saveAsync(@NotNull Executor executor) {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                save();
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    /**
+     * Rewrite the file with only the current holograms, replacing it atomically.
+     */
+    public synchronized void compact() throws IOException {
+        if (!loaded) {
+            throw new IllegalStateException("Cannot compact a hologram store before loading it.");
+        }
+        StringTable compacted = new StringTable();
+        byte[] segment = HologramCodec.encodeSegment(new ArrayList<>(holograms.values()), Collections.emptyList(), compacted);
+
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            write(channel, 0, HologramCodec.header());
+            write(channel, HologramCodec.HEADER_SIZE, segment);
+            channel.force(false);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        compacted.commit();
+        strings = compacted;
+        validLength = HologramCodec.HEADER_SIZE + segment.length;
+        fileRecords = holograms.size();
+        dirty.clear();
+    }
+
+    private static void write(FileChannel channel, long position, byte[] bytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+}
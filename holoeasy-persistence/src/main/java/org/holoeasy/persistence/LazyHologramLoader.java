@@ -0,0 +1,196 @@
+package org.holoeasy.persistence;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.World;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.ChunkLoadEvent;
+import org.bukkit.event.world.ChunkUnloadEvent;
+import org.holoeasy.HoloEasy;
+import org.holoeasy.hologram.Hologram;
+import org.holoeasy.pool.IHologramPool;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Keeps stored holograms as records indexed by chunk, and only creates their {@link Hologram} while the
+ * chunk is loaded. Holograms are added to the pool when their chunk loads and destroyed when it unloads,
+ * so the pool only tracks holograms around players.
+ * <pre>{@code
+ * store.loadAsync(executor).thenAccept(stored -> Bukkit.getScheduler().runTask(plugin, () -> {
+ *     loader = new LazyHologramLoader(lib, pool);
+ *     loader.addAll(stored);
+ *     loader.start();
+ * }));
+ * }</pre>
+ * Must be used from the main thread.
+ */
+public class LazyHologramLoader implements Listener {
+
+    private final HoloEasy lib;
+    private final IHologramPool<Hologram> pool;
+
+    // world name -> chunk key -> records
+    private final Map<String, Map<Long, List<StoredHologram>>> index = new HashMap<>();
+    private final Map<UUID, StoredHologram> stored = new HashMap<>();
+    private final Map<UUID, Hologram> materialised = new HashMap<>();
+    private boolean started = false;
+
+    public LazyHologramLoader(@NotNull HoloEasy lib, @NotNull IHologramPool<Hologram> pool) {
+        this.lib = lib;
+        this.pool = pool;
+    }
+
+    /**
+     * Start following chunk loads, materialising the holograms of the chunks already loaded.
+     */
+    public void start() {
+        if (started) {
+            return;
+        }
+        started = true;
+        Bukkit.getPluginManager().registerEvents(this, lib.getPlugin());
+        for (World world : Bukkit.getWorlds()) {
+            if (!index.containsKey(world.getName())) {
+                continue;
+            }
+            for (Chunk chunk : world.getLoadedChunks()) {
+                materialise(chunk);
+            }
+        }
+    }
+
+    /**
+     * Stop following chunks and destroy every materialised hologram. The records are kept.
+     */
+    public void stop() {
+        if (!started) {
+            return;
+        }
+        started = false;
+        HandlerList.unregisterAll(this);
+        for (Hologram hologram : materialised.values()) {
+            hologram.destroy(pool);
+        }
+        materialised.clear();
+    }
+
+    public void addAll(@NotNull Collection<StoredHologram> holograms) {
+        for (StoredHologram hologram : holograms) {
+            add(hologram);
+        }
+    }
+
+    /**
+     * Add or replace a record. If its chunk is loaded the hologram is materialised right away.
+     */
+    public void add(@NotNull StoredHologram hologram) {
+        remove(hologram.id);
+        stored.put(hologram.id, hologram);
+        index.computeIfAbsent(hologram.world, world -> new HashMap<>())
+                .computeIfAbsent(chunkKey(hologram.getChunkX(), hologram.getChunkZ()), key -> new ArrayList<>(1))
+                .add(hologram);
+
+        if (started) {
+            World world = Bukkit.getWorld(hologram.world);
+            if (world != null && world.isChunkLoaded(hologram.getChunkX(), hologram.getChunkZ())) {
+                show(hologram, world);
+            }
+        }
+    }
+
+    public boolean remove(@NotNull UUID id) {
+        StoredHologram hologram = stored.remove(id);
+        if (hologram == null) {
+            return false;
+        }
+        Map<Long, List<StoredHologram>> chunks = index.get(hologram.world);
+        long key = chunkKey(hologram.getChunkX(), hologram.getChunkZ());
+        List<StoredHologram> records = chunks.get(key);
+        records.remove(hologram);
+        if (records.isEmpty()) {
+            chunks.remove(key);
+            if (chunks.isEmpty()) {
+                index.remove(hologram.world);
+            }
+        }
+
+        Hologram live = materialised.remove(id);
+        if (live != null) {
+            live.destroy(pool);
+        }
+        return true;
+    }
+
+    /**
+     * Get the hologram created for a record, if its chunk is loaded.
+     */
+    public @Nullable Hologram getMaterialised(@NotNull UUID id) {
+        return materialised.get(id);
+    }
+
+    public int getStoredCount() {
+        return stored.size();
+    }
+
+    public int getMaterialisedCount() {
+        return materialised.size();
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void handleChunkLoad(ChunkLoadEvent event) {
+        materialise(event.getChunk());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void handleChunkUnload(ChunkUnloadEvent event) {
+        List<StoredHologram> records = records(event.getChunk());
+        if (records == null) {
+            return;
+        }
+        for (StoredHologram record : records) {
+            Hologram hologram = materialised.remove(record.id);
+            if (hologram != null) {
+                // frees the entity IDs, the record is all that is kept
+                hologram.destroy(pool);
+            }
+        }
+    }
+
+    private void materialise(Chunk chunk) {
+        List<StoredHologram> records = records(chunk);
+        if (records == null) {
+            return;
+        }
+        for (StoredHologram record : records) {
+            if (!materialised.containsKey(record.id)) {
+                show(record, chunk.getWorld());
+            }
+        }
+    }
+
+    private void show(StoredHologram record, World world) {
+        Hologram hologram = record.create(lib, world);
+        materialised.put(record.id, hologram);
+        hologram.show(pool);
+    }
+
+    private @Nullable List<StoredHologram> records(Chunk chunk) {
+        Map<Long, List<StoredHologram>> chunks = index.get(chunk.getWorld().getName());
+        return chunks == null ? null : chunks.get(chunkKey(chunk.getX(), chunk.getZ()));
+    }
+
+    private static long chunkKey(int x, int z) {
+        return ((long) x << 32) | (z & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,92 @@
+package org.holoeasy.persistence;
+
+import io.github.retrooper.packetevents.adventure.serializer.gson.GsonComponentSerializer;
+import net.kyori.adventure.text.Component;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.holoeasy.line.composite.AbstractDisplayElement;
+import org.holoeasy.line.composite.BlockDisplayElement;
+import org.holoeasy.line.composite.CompositeElement;
+import org.holoeasy.line.composite.ItemDisplayElement;
+import org.holoeasy.line.composite.SpacerElement;
+import org.holoeasy.line.composite.TextDisplayElement;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Stored element of a composite line, see {@link StoredLine#composite(java.util.List)}.
+ */
+public final class StoredElement {
+
+    static final GsonComponentSerializer SERIALIZER = GsonComponentSerializer.builder().build();
+
+    // stored by ordinal, only append new types
+    public enum Type {
+        TEXT, ITEM, BLOCK, SPACER
+    }
+
+    final Type type;
+    final @Nullable String value; // component JSON or material name
+    float width = -1; // < 0 = element default
+    @Nullable DisplayStyle style;
+
+    StoredElement(Type type, @Nullable String value) {
+        this.type = type;
+        this.value = value;
+    }
+
+    public static @NotNull StoredElement text(@NotNull Component text) {
+        return new StoredElement(Type.TEXT, SERIALIZER.serialize(text));
+    }
+
+    public static @NotNull StoredElement item(@NotNull Material material) {
+        return new StoredElement(Type.ITEM, material.name());
+    }
+
+    public static @NotNull StoredElement block(@NotNull Material material) {
+        return new StoredElement(Type.BLOCK, material.name());
+    }
+
+    public static @NotNull StoredElement spacer(float width) {
+        return new StoredElement(Type.SPACER, null).width(width);
+    }
+
+    public StoredElement width(float width) {
+        this.width = width;
+        return this;
+    }
+
+    public StoredElement style(@Nullable DisplayStyle style) {
+        this.style = style;
+        return this;
+    }
+
+    public @NotNull Type getType() {
+        return type;
+    }
+
+    @NotNull CompositeElement create() {
+        switch (type) {
+            case SPACER:
+                return new SpacerElement(width);
+            case TEXT:
+                return applyStyle(new TextDisplayElement(SERIALIZER.deserialize(value)));
+            case ITEM:
+                return applyStyle(new ItemDisplayElement(new ItemStack(StoredLine.material(value))));
+            case BLOCK:
+                return applyStyle(new BlockDisplayElement(StoredLine.material(value)));
+            default:
+                throw new IllegalStateException("Unknown element type " + type);
+        }
+    }
+
+    private AbstractDisplayElement<?, ?> applyStyle(AbstractDisplayElement<?, ?> element) {
+        if (width >= 0) {
+            element.width(width);
+        }
+        if (style != null) {
+            style.applyTo(element);
+        }
+        return element;
+    }
+}
@@ -0,0 +1,158 @@
+package org.holoeasy.persistence;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.holoeasy.HoloEasy;
+import org.holoeasy.hologram.Hologram;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Hologram as saved by a {@link HologramStore}: its ID, position and static lines.
+ * <pre>{@code
+ * StoredHologram stored = StoredHologram.builder(UUID.randomUUID(), "world", 0.5, 80, 0.5)
+ *     .line(StoredLine.text("Welcome"))
+ *     .line(StoredLine.displayText(Component.text("Shop")).style(new DisplayStyle().scale(1.5f)))
+ *     .build();
+ *
+ * store.put(stored);
+ * stored.create(lib).show(pool);
+ * }</pre>
+ * Stored holograms must not be modified once passed to a store, put a new one with the same ID instead.
+ */
+public final class StoredHologram {
+
+    final UUID id;
+    final String world;
+    final double x;
+    final double y;
+    final double z;
+    final float yaw;
+    final float lineSpacing; // < 0 = not stacked
+    final List<StoredLine> lines;
+
+    StoredHologram(UUID id, String world, double x, double y, double z, float yaw, float lineSpacing, List<StoredLine> lines) {
+        this.id = id;
+        this.world = world;
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.yaw = yaw;
+        this.lineSpacing = lineSpacing;
+        this.lines = lines;
+    }
+
+    public static @NotNull Builder builder(@NotNull UUID id, @NotNull String world, double x, double y, double z) {
+        return new Builder(id, world, x, y, z);
+    }
+
+    public @NotNull UUID getId() {
+        return id;
+    }
+
+    public @NotNull String getWorld() {
+        return world;
+    }
+
+    public double getX() {
+        return x;
+    }
+
+    public double getY() {
+        return y;
+    }
+
+    public double getZ() {
+        return z;
+    }
+
+    public float getYaw() {
+        return yaw;
+    }
+
+    int getChunkX() {
+        return (int) Math.floor(x) >> 4;
+    }
+
+    int getChunkZ() {
+        return (int) Math.floor(z) >> 4;
+    }
+
+    public @NotNull List<StoredLine> getLines() {
+        return lines;
+    }
+
+    /**
+     * Create the hologram with the stored ID, in the loaded world with the stored name.
+     *
+     * @return null if the world isn't loaded
+     */
+    public @Nullable Hologram create(@NotNull HoloEasy lib) {
+        World world = Bukkit.getWorld(this.world);
+        if (world == null) {
+            return null;
+        }
+        return create(lib, world);
+    }
+
+    @NotNull Hologram create(@NotNull HoloEasy lib, @NotNull World world) {
+        Hologram hologram = new Hologram(lib, id, new Location(world, x, y, z, yaw, 0));
+        if (lineSpacing >= 0) {
+            hologram.stackLines(lineSpacing);
+        }
+        for (StoredLine line : lines) {
+            line.addTo(hologram);
+        }
+        return hologram;
+    }
+
+    public static final class Builder {
+        private final UUID id;
+        private final String world;
+        private final double x;
+        private final double y;
+        private final double z;
+        private float yaw = 0;
+        private float lineSpacing = -1;
+        private final List<StoredLine> lines = new ArrayList<>();
+
+        private Builder(UUID id, String world, double x, double y, double z) {
+            this.id = id;
+            this.world = world;
+            this.x = x;
+            this.y = y;
+            this.z = z;
+        }
+
+        public Builder yaw(float yaw) {
+            this.yaw = yaw;
+            return this;
+        }
+
+        /**
+         * Stack the lines of the created hologram, see {@link Hologram#stackLines(double)}.
+         */
+        public Builder stackLines(float lineSpacing) {
+            this.lineSpacing = Math.max(lineSpacing, 0);
+            return this;
+        }
+
+        public Builder line(@NotNull StoredLine line) {
+            lines.add(line);
+            return this;
+        }
+
+        public @NotNull StoredHologram build() {
+            if (lines.isEmpty()) {
+                throw new IllegalStateException("Cannot store a hologram with no lines.");
+            }
+            return new StoredHologram(id, world, x, y, z, yaw, lineSpacing, Collections.unmodifiableList(new ArrayList<>(lines)));
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package org.holoeasy.persistence;
+
+import net.kyori.adventure.text.Component;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.holoeasy.hologram.Hologram;
+import org.holoeasy.line.AbstractDisplayLine;
+import org.holoeasy.line.CompositeDisplayLine;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Stored line of a {@link StoredHologram}. Only static values can be stored, lines whose value
+ * depends on the player are created by the plugin after loading.
+ */
+public final class StoredLine {
+
+    // stored by ordinal, only append new types
+    public enum Type {
+        TEXT, COMPONENT, ITEM, BLOCK, DISPLAY_TEXT, DISPLAY_ITEM, DISPLAY_BLOCK, COMPOSITE
+    }
+
+    final Type type;
+    final @Nullable String value; // text, component JSON or material name
+    int amount = 1;
+    double yOffset = 0;
+    @Nullable DisplayStyle style;
+
+    // Composite lines only
+    CompositeDisplayLine.Alignment alignment = CompositeDisplayLine.Alignment.CENTER;
+    float yTranslation = 0;
+    List<StoredElement> elements = Collections.emptyList();
+
+    StoredLine(Type type, @Nullable String value) {
+        this.type = type;
+        this.value = value;
+    }
+
+    public static @NotNull StoredLine text(@NotNull String text) {
+        return new StoredLine(Type.TEXT, text);
+    }
+
+    public static @NotNull StoredLine component(@NotNull Component text) {
+        return new StoredLine(Type.COMPONENT, StoredElement.SERIALIZER.serialize(text));
+    }
+
+    public static @NotNull StoredLine item(@NotNull Material material, int amount) {
+        StoredLine line = new StoredLine(Type.ITEM, material.name());
+        line.amount = amount;
+        return line;
+    }
+
+    public static @NotNull StoredLine block(@NotNull Material material) {
+        return new StoredLine(Type.BLOCK, material.name());
+    }
+
+    public static @NotNull StoredLine displayText(@NotNull Component text) {
+        return new StoredLine(Type.DISPLAY_TEXT, StoredElement.SERIALIZER.serialize(text));
+    }
+
+    public static @NotNull StoredLine displayItem(@NotNull Material material) {
+        return new StoredLine(Type.DISPLAY_ITEM, material.name());
+    }
+
+    public static @NotNull StoredLine displayBlock(@NotNull Material material) {
+        return new StoredLine(Type.DISPLAY_BLOCK, material.name());
+    }
+
+    public static @NotNull StoredLine composite(@NotNull List<StoredElement> elements) {
+        StoredLine line = new StoredLine(Type.COMPOSITE, null);
+        line.elements = Collections.unmodifiableList(new ArrayList<>(elements));
+        return line;
+    }
+
+    public StoredLine yOffset(double yOffset) {
+        this.yOffset = yOffset;
+        return this;
+    }
+
+    /**
+     * Display lines only.
+     */
+    public StoredLine style(@Nullable DisplayStyle style) {
+        this.style = style;
+        return this;
+    }
+
+    /**
+     * Composite lines only.
+     */
+    public StoredLine alignment(@NotNull CompositeDisplayLine.Alignment alignment) {
+        this.alignment = alignment;
+        return this;
+    }
+
+    /**
+     * Composite lines only.
+     */
+    public StoredLine yTranslation(float yTranslation) {
+        this.yTranslation = yTranslation;
+        return this;
+    }
+
+    public @NotNull Type getType() {
+        return type;
+    }
+
+    void addTo(@NotNull Hologram hologram) {
+        switch (type) {
+            case TEXT: {
+                String text = value;
+                hologram.textLine(player -> text).yOffset(yOffset);
+                break;
+            }
+            case COMPONENT: {
+                Component text = StoredElement.SERIALIZER.deserialize(value);
+                hologram.componentLine(player -> text).yOffset(yOffset);
+                break;
+            }
+            case ITEM: {
+                ItemStack item = new ItemStack(material(value), amount);
+                hologram.itemLine(player -> item).yOffset(yOffset);
+                break;
+            }
+            case BLOCK: {
+                ItemStack block = new ItemStack(material(value));
+                hologram.blockLine(player -> block).yOffset(yOffset);
+                break;
+            }
+            case DISPLAY_TEXT: {
+                Component text = StoredElement.SERIALIZER.deserialize(value);
+                applyStyle(hologram.displayTextLine(player -> text));
+                break;
+            }
+            case DISPLAY_ITEM: {
+                ItemStack item = new ItemStack(material(value));
+                applyStyle(hologram.displayItemLine(player -> item));
+                break;
+            }
+            case DISPLAY_BLOCK: {
+                Material material = material(value);
+                applyStyle(hologram.displayBlockLine(player -> material));
+                break;
+            }
+            case COMPOSITE: {
+                CompositeDisplayLine line = hologram.compositeLine()
+                        .alignment(alignment)
+                        .yTranslation(yTranslation)
+                        .yOffset(yOffset);
+                for (StoredElement element : elements) {
+                    line.add(element.create());
+                }
+                break;
+            }
+            default:
+                throw new IllegalStateException("Unknown line type " + type);
+        }
+    }
+
+    private void applyStyle(AbstractDisplayLine<?, ?> line) {
+        line.yOffset(yOffset);
+        if (style != null) {
+            style.applyTo(line);
+        }
+    }
+
+    static @NotNull Material material(String name) {
+        Material material = Material.matchMaterial(name);
+        if (material == null) {
+            throw new IllegalArgumentException("Unknown material " + name);
+        }
+        return material;
+    }
+}
@@ -0,0 +1,59 @@
+package org.holoeasy.persistence;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Strings of a store file by index. Each segment only carries the strings added since the previous
+ * one, so repeated texts, worlds and materials are written once per file.
+ */
+final class StringTable {
+
+    private final List<String> strings = new ArrayList<>();
+    private final Map<String, Integer> indexes = new HashMap<>();
+    private int committed = 0;
+
+    int intern(String value) {
+        Integer index = indexes.get(value);
+        if (index == null) {
+            index = strings.size();
+            strings.add(value);
+            indexes.put(value, index);
+        }
+        return index;
+    }
+
+    String get(int index) {
+        if (index < 0 || index >= strings.size()) {
+            throw new IndexOutOfBoundsException("String " + index + " of " + strings.size());
+        }
+        return strings.get(index);
+    }
+
+    /**
+     * Add a string read from the file.
+     */
+    void load(String value) {
+        intern(value);
+        committed = strings.size();
+    }
+
+    /**
+     * Get the strings interned since the last commit, which the next segment must carry.
+     */
+    List<String> uncommitted() {
+        return strings.subList(committed, strings.size());
+    }
+
+    void commit() {
+        committed = strings.size();
+    }
+
+    void rollback() {
+        while (strings.size() > committed) {
+            indexes.remove(strings.remove(strings.size() - 1));
+        }
+    }
+}
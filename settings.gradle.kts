@@ -21,4 +21,5 @@
 
 rootProject.name = "holoeasy"
 include(":holoeasy-core")
+include(":holoeasy-persistence")
 include(":holoeasy-example-java")